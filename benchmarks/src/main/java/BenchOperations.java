@@ -0,0 +1,190 @@
+import bench.Operations;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.swing.JComponent;
+
+// BenchOperations kör spelets metoder åt benchmark-klasserna i paketet bench (se Operations).
+public final class BenchOperations implements Operations {
+
+    private static final int WALK = 4096;  // Längden på den förslumpade vandringen för move()
+    private static final int FRAME = 800;  // Bredd och höjd (pixlar) för en ritad bildruta
+
+    private final int size;
+    private final Board board;
+    private final Board historyBoard;      // Bräde med gjorda drag för undo/redo
+    private final BoardPanel panel;
+    private final int[] walk = new int[WALK]; // Förslumpade riktningar så move() inte mäter Random
+    private final Walker buttonWalker;     // Eget bräde med BoardPanel för frameButtons
+    private final Walker canvasWalker;     // Eget bräde med BoardCanvas för frameCanvas
+    private final BoardPanel buttonView;
+    private final BoardCanvas canvasView;
+    private final BufferedImage frame = new BufferedImage(FRAME, FRAME, BufferedImage.TYPE_INT_RGB);
+    private final List<Highscore.Entry> scores = new ArrayList<>();
+    private final Random random = new Random(42);
+
+    private final Walker walker;           // Slumpvandringen på board
+    private long seed;      // Nästa frö för shuffleUniform
+
+    public BenchOperations(int size) {
+        // Highscore.DIR läses när klassen laddas, så mappen måste anges när JVM:en startas (BenchmarkMain gör det).
+        // Utan den skulle mätningen skriva i spelarens riktiga listor i arbetsmappen.
+        if (System.getProperty("highscore.dir") == null) {
+            throw new IllegalStateException("-Dhighscore.dir saknas, starta mätningarna med bench.BenchmarkMain");
+        }
+
+        this.size = size;
+        this.board = new Board(size);
+        for (int i = 0; i < WALK; ++i) {
+            this.walk[i] = this.random.nextInt(4);
+        }
+        this.walker = new Walker(this.board);
+
+        this.historyBoard = new Board(size);
+        for (int moves = 0; moves < 1000; ) {
+            if (this.historyBoard.move(this.random.nextInt(size), this.random.nextInt(size))) {
+                ++moves;
+            }
+        }
+        this.historyBoard.undo(); // Så att det finns något att göra om
+
+        this.panel = new BoardPanel(this.board);
+
+        // De två vyerna har varsitt bräde så att en bildruta bara mäter den ena
+        Board buttonBoard = new Board(size);
+        this.buttonView = new BoardPanel(buttonBoard);
+        this.buttonView.setSize(FRAME, FRAME);
+        this.buttonView.doLayout();
+        this.buttonWalker = new Walker(buttonBoard);
+
+        Board canvasBoard = new Board(size);
+        this.canvasView = new BoardCanvas(canvasBoard);
+        this.canvasView.setSize(FRAME, FRAME);
+        this.canvasWalker = new Walker(canvasBoard);
+
+        for (int i = 0; i < 10; ++i) {
+            this.scores.add(new Highscore.Entry("Spelare" + i, 50 + i, 10_000L + i, size, i));
+            Highscore.addEntry(this.scores.get(i));
+        }
+    }
+
+    @Override
+    public int move() {
+        return this.walker.step();
+    }
+
+    @Override
+    public int undoRedo() {
+        this.historyBoard.redo();
+        this.historyBoard.undo();
+        return this.historyBoard.getMoves();
+    }
+
+    @Override
+    public int shuffleUniform() {
+        this.board.shuffleUniform(this.seed++);
+        this.walker.syncEmpty();
+        return this.board.getMisplaced();
+    }
+
+    @Override
+    public int shuffleRandomWalk() {
+        this.board.shuffle(5000, this.random);
+        this.walker.syncEmpty();
+        return this.board.getMisplaced();
+    }
+
+    @Override
+    public boolean isSolved() {
+        return this.board.isSolved();
+    }
+
+    @Override
+    public int highscoreLoad() {
+        return Highscore.load().size();
+    }
+
+    @Override
+    public void highscoreSave() {
+        Highscore.save(new ArrayList<>(this.scores));
+    }
+
+    @Override
+    public void highscoreAddEntry() {
+        Highscore.addEntry(new Highscore.Entry("Bench", 20 + this.random.nextInt(200),
+                this.random.nextInt(100_000), this.size, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void refresh() {
+        this.panel.refresh();
+    }
+
+    @Override
+    public int frameButtons() {
+        this.buttonWalker.step();
+        this.paint(this.buttonView);
+        return this.frame.getRGB(FRAME / 2, FRAME / 2);
+    }
+
+    @Override
+    public int frameCanvas() {
+        this.canvasWalker.step();
+        this.paint(this.canvasView);
+        return this.frame.getRGB(FRAME / 2, FRAME / 2);
+    }
+
+    // paint – ritar hela vyn till en bild, som Swing gör när fönstret ritas om
+    private void paint(JComponent view) {
+        Graphics2D g = this.frame.createGraphics();
+        try {
+            view.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Walker – flyttar den tomma rutan enligt den förslumpade vandringen på ett bräde
+    private final class Walker {
+
+        private final Board board;
+        private int step;       // Nästa riktning i walk
+        private int emptyRow;   // Den tomma rutans position
+        private int emptyCol;
+
+        Walker(Board board) {
+            this.board = board;
+            this.emptyRow = size - 1;
+            this.emptyCol = size - 1;
+        }
+
+        int step() {
+            int direction = walk[this.step++ & (WALK - 1)];
+            int row = this.emptyRow + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+            int col = this.emptyCol + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+            if (row < 0 || row >= size || col < 0 || col >= size) {
+                // Studsar mot kanten: gå åt motsatt håll istället
+                row = 2 * this.emptyRow - row;
+                col = 2 * this.emptyCol - col;
+            }
+            this.board.move(row, col);
+            this.emptyRow = row;
+            this.emptyCol = col;
+            return this.board.getMoves();
+        }
+
+        // syncEmpty – letar upp den tomma rutan efter en blandning
+        void syncEmpty() {
+            for (int row = 0; row < size; ++row) {
+                for (int col = 0; col < size; ++col) {
+                    if (this.board.get(row, col).isEmpty()) {
+                        this.emptyRow = row;
+                        this.emptyCol = col;
+                    }
+                }
+            }
+        }
+    }
+}
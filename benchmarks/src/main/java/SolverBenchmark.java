@@ -0,0 +1,376 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// SolverBenchmark kör lösaren med alla konfigurationer som finns på en fast uppsättning ställningar och
+// skriver längd, antal noder, noder/s, högsta heap-användning och tid för varje körning till en CSV-fil.
+// Den används för att välja konfiguration och för att upptäcka om söktakten har blivit sämre.
+// En körning som når nodgränsen räknas som olöst (längd -1 i CSV-filen) – den byts inte mot en lättare ställning.
+//   java -cp benchmarks/target/benchmarks.jar SolverBenchmark [instanser] [konfigurationer] [nodgräns] [csv-fil]
+// Instanser (kommaseparerade):
+//   korf          Korfs 100 klassiska 4x4-ställningar (korf:1-10 för ett urval)
+//   3x3:100       100 ställningar från Board.shuffleUniform, frö 1, 2, 3 ... (alla lösbara lika sannolika)
+//   5x5:10        likadant för 5x5 (de flesta är för svåra för nodgränsen och räknas då som olösta)
+//   3x3:100:400   istället blandade med 400 slumpdrag (Board.shuffle), för lättare ställningar
+// Konfigurationer (kommaseparerade, standard är alla som finns för storleken):
+//   ida-md, ida-lc, ida-wd, ida-pdb    Solver med Manhattan, Manhattan + linjära konflikter,
+//                                      walking distance eller mönsterdatabasen
+//   par-lc, par-wd, par-pdb            ParallelSolver på alla kärnor med samma heuristiker
+//   table                              uppslag i DistanceTable (ingen sökning)
+public final class SolverBenchmark {
+
+    private static final String DEFAULT_INSTANCES = "korf:1-10,3x3:100,5x5:10";
+    private static final String ALL_CONFIGS = "ida-md,ida-lc,ida-wd,ida-pdb,par-lc,par-wd,par-pdb,table";
+    private static final long DEFAULT_NODE_LIMIT = 2_000_000_000L;
+    private static final int WARMUP_RUNS = 20; // 3x3-lösningar per konfiguration innan mätningen börjar
+
+    // Korfs 100 ställningar (Korf 1985, "Depth-first iterative-deepening"), sista talet är kortaste längden.
+    // Korf har den tomma rutan i målet överst till vänster; korfBoard vrider dem 180° till spelets mål.
+    private static final int[][] KORF = {
+            {14, 13, 15, 7, 11, 12, 9, 5, 6, 0, 2, 1, 4, 8, 10, 3, 57},
+            {13, 5, 4, 10, 9, 12, 8, 14, 2, 3, 7, 1, 0, 15, 11, 6, 55},
+            {14, 7, 8, 2, 13, 11, 10, 4, 9, 12, 5, 0, 3, 6, 1, 15, 59},
+            {5, 12, 10, 7, 15, 11, 14, 0, 8, 2, 1, 13, 3, 4, 9, 6, 56},
+            {4, 7, 14, 13, 10, 3, 9, 12, 11, 5, 6, 15, 1, 2, 8, 0, 56},
+            {14, 7, 1, 9, 12, 3, 6, 15, 8, 11, 2, 5, 10, 0, 4, 13, 52},
+            {2, 11, 15, 5, 13, 4, 6, 7, 12, 8, 10, 1, 9, 3, 14, 0, 52},
+            {12, 11, 15, 3, 8, 0, 4, 2, 6, 13, 9, 5, 14, 1, 10, 7, 50},
+            {3, 14, 9, 11, 5, 4, 8, 2, 13, 12, 6, 7, 10, 1, 15, 0, 46},
+            {13, 11, 8, 9, 0, 15, 7, 10, 4, 3, 6, 14, 5, 12, 2, 1, 59},
+            {5, 9, 13, 14, 6, 3, 7, 12, 10, 8, 4, 0, 15, 2, 11, 1, 57},
+            {14, 1, 9, 6, 4, 8, 12, 5, 7, 2, 3, 0, 10, 11, 13, 15, 45},
+            {3, 6, 5, 2, 10, 0, 15, 14, 1, 4, 13, 12, 9, 8, 11, 7, 46},
+            {7, 6, 8, 1, 11, 5, 14, 10, 3, 4, 9, 13, 15, 2, 0, 12, 59},
+            {13, 11, 4, 12, 1, 8, 9, 15, 6, 5, 14, 2, 7, 3, 10, 0, 62},
+            {1, 3, 2, 5, 10, 9, 15, 6, 8, 14, 13, 11, 12, 4, 7, 0, 42},
+            {15, 14, 0, 4, 11, 1, 6, 13, 7, 5, 8, 9, 3, 2, 10, 12, 66},
+            {6, 0, 14, 12, 1, 15, 9, 10, 11, 4, 7, 2, 8, 3, 5, 13, 55},
+            {7, 11, 8, 3, 14, 0, 6, 15, 1, 4, 13, 9, 5, 12, 2, 10, 46},
+            {6, 12, 11, 3, 13, 7, 9, 15, 2, 14, 8, 10, 4, 1, 5, 0, 52},
+            {12, 8, 14, 6, 11, 4, 7, 0, 5, 1, 10, 15, 3, 13, 9, 2, 54},
+            {14, 3, 9, 1, 15, 8, 4, 5, 11, 7, 10, 13, 0, 2, 12, 6, 59},
+            {10, 9, 3, 11, 0, 13, 2, 14, 5, 6, 4, 7, 8, 15, 1, 12, 49},
+            {7, 3, 14, 13, 4, 1, 10, 8, 5, 12, 9, 11, 2, 15, 6, 0, 54},
+            {11, 4, 2, 7, 1, 0, 10, 15, 6, 9, 14, 8, 3, 13, 5, 12, 52},
+            {5, 7, 3, 12, 15, 13, 14, 8, 0, 10, 9, 6, 1, 4, 2, 11, 58},
+            {14, 1, 8, 15, 2, 6, 0, 3, 9, 12, 10, 13, 4, 7, 5, 11, 53},
+            {13, 14, 6, 12, 4, 5, 1, 0, 9, 3, 10, 2, 15, 11, 8, 7, 52},
+            {9, 8, 0, 2, 15, 1, 4, 14, 3, 10, 7, 5, 11, 13, 6, 12, 54},
+            {12, 15, 2, 6, 1, 14, 4, 8, 5, 3, 7, 0, 10, 13, 9, 11, 47},
+            {12, 8, 15, 13, 1, 0, 5, 4, 6, 3, 2, 11, 9, 7, 14, 10, 50},
+            {14, 10, 9, 4, 13, 6, 5, 8, 2, 12, 7, 0, 1, 3, 11, 15, 59},
+            {14, 3, 5, 15, 11, 6, 13, 9, 0, 10, 2, 12, 4, 1, 7, 8, 60},
+            {6, 11, 7, 8, 13, 2, 5, 4, 1, 10, 3, 9, 14, 0, 12, 15, 52},
+            {1, 6, 12, 14, 3, 2, 15, 8, 4, 5, 13, 9, 0, 7, 11, 10, 55},
+            {12, 6, 0, 4, 7, 3, 15, 1, 13, 9, 8, 11, 2, 14, 5, 10, 52},
+            {8, 1, 7, 12, 11, 0, 10, 5, 9, 15, 6, 13, 14, 2, 3, 4, 58},
+            {7, 15, 8, 2, 13, 6, 3, 12, 11, 0, 4, 10, 9, 5, 1, 14, 53},
+            {9, 0, 4, 10, 1, 14, 15, 3, 12, 6, 5, 7, 11, 13, 8, 2, 49},
+            {11, 5, 1, 14, 4, 12, 10, 0, 2, 7, 13, 3, 9, 15, 6, 8, 54},
+            {8, 13, 10, 9, 11, 3, 15, 6, 0, 1, 2, 14, 12, 5, 4, 7, 54},
+            {4, 5, 7, 2, 9, 14, 12, 13, 0, 3, 6, 11, 8, 1, 15, 10, 42},
+            {11, 15, 14, 13, 1, 9, 10, 4, 3, 6, 2, 12, 7, 5, 8, 0, 64},
+            {12, 9, 0, 6, 8, 3, 5, 14, 2, 4, 11, 7, 10, 1, 15, 13, 50},
+            {3, 14, 9, 7, 12, 15, 0, 4, 1, 8, 5, 6, 11, 10, 2, 13, 51},
+            {8, 4, 6, 1, 14, 12, 2, 15, 13, 10, 9, 5, 3, 7, 0, 11, 49},
+            {6, 10, 1, 14, 15, 8, 3, 5, 13, 0, 2, 7, 4, 9, 11, 12, 47},
+            {8, 11, 4, 6, 7, 3, 10, 9, 2, 12, 15, 13, 0, 1, 5, 14, 49},
+            {10, 0, 2, 4, 5, 1, 6, 12, 11, 13, 9, 7, 15, 3, 14, 8, 59},
+            {12, 5, 13, 11, 2, 10, 0, 9, 7, 8, 4, 3, 14, 6, 15, 1, 53},
+            {10, 2, 8, 4, 15, 0, 1, 14, 11, 13, 3, 6, 9, 7, 5, 12, 56},
+            {10, 8, 0, 12, 3, 7, 6, 2, 1, 14, 4, 11, 15, 13, 9, 5, 56},
+            {14, 9, 12, 13, 15, 4, 8, 10, 0, 2, 1, 7, 3, 11, 5, 6, 64},
+            {12, 11, 0, 8, 10, 2, 13, 15, 5, 4, 7, 3, 6, 9, 14, 1, 56},
+            {13, 8, 14, 3, 9, 1, 0, 7, 15, 5, 4, 10, 12, 2, 6, 11, 41},
+            {3, 15, 2, 5, 11, 6, 4, 7, 12, 9, 1, 0, 13, 14, 10, 8, 55},
+            {5, 11, 6, 9, 4, 13, 12, 0, 8, 2, 15, 10, 1, 7, 3, 14, 50},
+            {5, 0, 15, 8, 4, 6, 1, 14, 10, 11, 3, 9, 7, 12, 2, 13, 51},
+            {15, 14, 6, 7, 10, 1, 0, 11, 12, 8, 4, 9, 2, 5, 13, 3, 57},
+            {11, 14, 13, 1, 2, 3, 12, 4, 15, 7, 9, 5, 10, 6, 8, 0, 66},
+            {6, 13, 3, 2, 11, 9, 5, 10, 1, 7, 12, 14, 8, 4, 0, 15, 45},
+            {4, 6, 12, 0, 14, 2, 9, 13, 11, 8, 3, 15, 7, 10, 1, 5, 57},
+            {8, 10, 9, 11, 14, 1, 7, 15, 13, 4, 0, 12, 6, 2, 5, 3, 56},
+            {5, 2, 14, 0, 7, 8, 6, 3, 11, 12, 13, 15, 4, 10, 9, 1, 51},
+            {7, 8, 3, 2, 10, 12, 4, 6, 11, 13, 5, 15, 0, 1, 9, 14, 47},
+            {11, 6, 14, 12, 3, 5, 1, 15, 8, 0, 10, 13, 9, 7, 4, 2, 61},
+            {7, 1, 2, 4, 8, 3, 6, 11, 10, 15, 0, 5, 14, 12, 13, 9, 50},
+            {7, 3, 1, 13, 12, 10, 5, 2, 8, 0, 6, 11, 14, 15, 4, 9, 51},
+            {6, 0, 5, 15, 1, 14, 4, 9, 2, 13, 8, 10, 11, 12, 7, 3, 53},
+            {15, 1, 3, 12, 4, 0, 6, 5, 2, 8, 14, 9, 13, 10, 7, 11, 52},
+            {5, 7, 0, 11, 12, 1, 9, 10, 15, 6, 2, 3, 8, 4, 13, 14, 44},
+            {12, 15, 11, 10, 4, 5, 14, 0, 13, 7, 1, 2, 9, 8, 3, 6, 56},
+            {6, 14, 10, 5, 15, 8, 7, 1, 3, 4, 2, 0, 12, 9, 11, 13, 49},
+            {14, 13, 4, 11, 15, 8, 6, 9, 0, 7, 3, 1, 2, 10, 12, 5, 56},
+            {14, 4, 0, 10, 6, 5, 1, 3, 9, 2, 13, 15, 12, 7, 8, 11, 48},
+            {15, 10, 8, 3, 0, 6, 9, 5, 1, 14, 13, 11, 7, 2, 12, 4, 57},
+            {0, 13, 2, 4, 12, 14, 6, 9, 15, 1, 10, 3, 11, 5, 8, 7, 54},
+            {3, 14, 13, 6, 4, 15, 8, 9, 5, 12, 10, 0, 2, 7, 1, 11, 53},
+            {0, 1, 9, 7, 11, 13, 5, 3, 14, 12, 4, 2, 8, 6, 10, 15, 42},
+            {11, 0, 15, 8, 13, 12, 3, 5, 10, 1, 4, 6, 14, 9, 7, 2, 57},
+            {13, 0, 9, 12, 11, 6, 3, 5, 15, 8, 1, 10, 4, 14, 2, 7, 53},
+            {14, 10, 2, 1, 13, 9, 8, 11, 7, 3, 6, 12, 15, 5, 4, 0, 62},
+            {12, 3, 9, 1, 4, 5, 10, 2, 6, 11, 15, 0, 14, 7, 13, 8, 49},
+            {15, 8, 10, 7, 0, 12, 14, 1, 5, 9, 6, 3, 13, 11, 4, 2, 55},
+            {4, 7, 13, 10, 1, 2, 9, 6, 12, 8, 14, 5, 3, 0, 11, 15, 44},
+            {6, 0, 5, 10, 11, 12, 9, 2, 1, 7, 4, 3, 14, 8, 13, 15, 45},
+            {9, 5, 11, 10, 13, 0, 2, 1, 8, 6, 14, 12, 4, 7, 3, 15, 52},
+            {15, 2, 12, 11, 14, 13, 9, 5, 1, 3, 8, 7, 0, 10, 6, 4, 65},
+            {11, 1, 7, 4, 10, 13, 3, 8, 9, 14, 0, 15, 6, 5, 2, 12, 54},
+            {5, 4, 7, 1, 11, 12, 14, 15, 10, 13, 8, 6, 2, 0, 9, 3, 50},
+            {9, 7, 5, 2, 14, 15, 12, 10, 11, 3, 6, 1, 8, 13, 0, 4, 57},
+            {3, 2, 7, 9, 0, 15, 12, 4, 6, 11, 5, 14, 8, 13, 10, 1, 57},
+            {13, 9, 14, 6, 12, 8, 1, 2, 3, 4, 0, 7, 5, 10, 11, 15, 46},
+            {5, 7, 11, 8, 0, 14, 9, 13, 10, 12, 3, 15, 6, 1, 4, 2, 53},
+            {4, 3, 6, 13, 7, 15, 9, 0, 10, 5, 8, 11, 2, 12, 1, 14, 50},
+            {1, 7, 15, 14, 2, 6, 4, 9, 12, 11, 13, 3, 0, 8, 5, 10, 49},
+            {9, 14, 5, 7, 8, 15, 1, 2, 10, 4, 13, 6, 12, 0, 11, 3, 44},
+            {0, 11, 3, 12, 5, 2, 1, 9, 8, 10, 14, 15, 7, 4, 13, 6, 54},
+            {7, 15, 4, 0, 10, 9, 2, 5, 12, 11, 13, 6, 1, 3, 14, 8, 57},
+            {11, 4, 0, 8, 6, 10, 5, 13, 12, 7, 14, 3, 1, 2, 9, 15, 54},
+    };
+
+    // Instance – en ställning att lösa och den kända kortaste längden (-1 om den inte är känd)
+    static final class Instance {
+        final String name;
+        final Board board;
+        final int expected;
+
+        Instance(String name, Board board, int expected) {
+            this.name = name;
+            this.board = board;
+            this.expected = expected;
+        }
+    }
+
+    // Result – en körning av en konfiguration på en ställning
+    static final class Result {
+        int length;      // Lösningens längd, -1 om nodgränsen nåddes
+        long nodes;      // Antal expanderade noder
+        long nanos;      // Väggklockans tid
+        long peakHeap;   // Högsta heap-användning under körningen (byte)
+    }
+
+    // Totals – summan för en konfiguration, för sammanfattningen
+    private static final class Totals {
+        int runs;
+        int solved;
+        int wrong;       // Lösningar som inte har den kända kortaste längden
+        long nodes;
+        long nanos;
+        long peakHeap;
+    }
+
+    private SolverBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String instanceSpec = args.length > 0 ? args[0] : DEFAULT_INSTANCES;
+        String configSpec = args.length > 1 ? args[1] : ALL_CONFIGS;
+        long nodeLimit = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_NODE_LIMIT;
+        String csv = args.length > 3 ? args[3] : "solver-benchmark.csv";
+
+        List<Instance> instances = parseInstances(instanceSpec);
+        String[] configs = configSpec.split(",");
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%d ställningar, konfigurationer %s, nodgräns %d, %d kärnor%n",
+                instances.size(), configSpec, nodeLimit, cores);
+        warmUp(configs, nodeLimit, cores);
+
+        Map<String, Totals> totals = new LinkedHashMap<>();
+        try (PrintWriter out = new PrintWriter(new FileWriter(csv))) {
+            out.println("instance,size,config,length,expected,nodes,nodes_per_sec,peak_heap_bytes,wall_ms");
+            for (Instance instance : instances) {
+                for (String config : configs) {
+                    Result result = run(config, instance.board, nodeLimit, cores);
+                    if (result == null) {
+                        continue; // Konfigurationen finns inte för den här storleken
+                    }
+
+                    double seconds = result.nanos / 1e9;
+                    out.printf("%s,%d,%s,%d,%d,%d,%.0f,%d,%.3f%n", instance.name, instance.board.size(), config,
+                            result.length, instance.expected, result.nodes, result.nodes / Math.max(seconds, 1e-9),
+                            result.peakHeap, result.nanos / 1e6);
+                    out.flush();
+                    System.out.printf("%-10s %-8s %-10s %,15d noder  %10.3f s%n", instance.name, config,
+                            result.length >= 0 ? "längd " + result.length : "olöst", result.nodes, seconds);
+
+                    Totals t = totals.computeIfAbsent(instance.board.size() + "x" + instance.board.size() + " " + config,
+                            (key) -> new Totals());
+                    ++t.runs;
+                    if (result.length >= 0) {
+                        ++t.solved;
+                        if (instance.expected >= 0 && result.length != instance.expected) {
+                            ++t.wrong;
+                        }
+                    }
+                    t.nodes += result.nodes;
+                    t.nanos += result.nanos;
+                    t.peakHeap = Math.max(t.peakHeap, result.peakHeap);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-16s %6s %6s %6s %16s %14s %10s %10s%n",
+                "Konfiguration", "Körn.", "Lösta", "Fel", "Noder", "Noder/s", "Tid (s)", "Heap (MB)");
+        for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+            Totals t = entry.getValue();
+            double seconds = t.nanos / 1e9;
+            System.out.printf("%-16s %6d %6d %6d %,16d %,14.0f %10.2f %10.1f%n", entry.getKey(), t.runs, t.solved,
+                    t.wrong, t.nodes, t.nodes / Math.max(seconds, 1e-9), seconds, t.peakHeap / 1048576.0);
+        }
+        System.out.println("Resultatet skrevs till " + csv);
+    }
+
+    // parseInstances – tolkar instans-argumentet (se klasskommentaren)
+    static List<Instance> parseInstances(String spec) {
+        List<Instance> instances = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] fields = part.split(":");
+            if (fields[0].equals("korf")) {
+                int first = 1;
+                int last = KORF.length;
+                if (fields.length > 1) {
+                    String[] range = fields[1].split("-");
+                    first = Integer.parseInt(range[0]);
+                    last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                }
+                for (int i = first; i <= last; ++i) {
+                    instances.add(new Instance("korf-" + i, korfBoard(KORF[i - 1]), KORF[i - 1][16]));
+                }
+            } else {
+                int size = Integer.parseInt(fields[0].substring(0, fields[0].indexOf('x')));
+                int count = fields.length > 1 ? Integer.parseInt(fields[1]) : 10;
+                for (int seed = 1; seed <= count; ++seed) {
+                    Board board = new Board(size);
+                    if (fields.length > 2) {
+                        board.shuffle(Integer.parseInt(fields[2]), new Random(seed));
+                    } else {
+                        board.shuffleUniform(seed);
+                    }
+                    instances.add(new Instance(size + "x" + size + "-" + seed, board, -1));
+                }
+            }
+        }
+        return instances;
+    }
+
+    // korfBoard – en av Korfs ställningar på spelets bräde: vriden 180° och med bricka t omdöpt till 16 - t,
+    // så att Korfs mål (tom ruta först, sedan 1–15) blir spelets mål (1–15, tom ruta sist). Längden är densamma.
+    private static Board korfBoard(int[] korf) {
+        int[] values = new int[16];
+        for (int pos = 0; pos < 16; ++pos) {
+            values[15 - pos] = korf[pos] == 0 ? 0 : 16 - korf[pos];
+        }
+        Board board = new Board(4);
+        board.setCells(values);
+        return board;
+    }
+
+    // warmUp – låter JIT-kompilatorn optimera sökningen innan något mäts
+    private static void warmUp(String[] configs, long nodeLimit, int cores) {
+        for (String config : configs) {
+            for (int seed = 1; seed <= WARMUP_RUNS; ++seed) {
+                Board board = new Board(3);
+                board.shuffleUniform(-seed);
+                run(config, board, nodeLimit, cores);
+            }
+        }
+    }
+
+    // run – kör en konfiguration på ett bräde, null om konfigurationen inte finns för brädets storlek
+    static Result run(String config, Board board, long nodeLimit, int cores) {
+        int size = board.size();
+        Result result = new Result();
+
+        if (config.equals("table")) {
+            DistanceTable table = DistanceTable.forSize(size);
+            if (table == null) {
+                return null;
+            }
+            resetPeaks();
+            long start = System.nanoTime();
+            result.length = table.solution(board).size();
+            result.nanos = System.nanoTime() - start;
+            result.peakHeap = peakHeap();
+            return result;
+        }
+
+        String[] parts = config.split("-");
+        Supplier<Heuristic> heuristics = heuristicFor(parts.length > 1 ? parts[1] : "", size);
+        if (heuristics == null || size > Solver.MAX_SIZE) {
+            return null;
+        }
+
+        List<Move> solution;
+        resetPeaks();
+        long start = System.nanoTime();
+        if (parts[0].equals("ida")) {
+            Solver solver = new Solver(board, heuristics.get());
+            solver.setNodeLimit(nodeLimit);
+            solution = solver.solve();
+            result.nodes = solver.getNodes();
+        } else if (parts[0].equals("par")) {
+            ParallelSolver solver = new ParallelSolver(board, heuristics, cores);
+            solver.setNodeLimit(nodeLimit);
+            solution = solver.solve();
+            result.nodes = solver.getNodes();
+        } else {
+            throw new IllegalArgumentException("Okänd konfiguration: " + config);
+        }
+        result.nanos = System.nanoTime() - start;
+        result.peakHeap = peakHeap();
+        result.length = solution != null ? solution.size() : -1;
+        return result;
+    }
+
+    // heuristicFor – skapar heuristiken för ett namn, null om den inte finns för storleken
+    private static Supplier<Heuristic> heuristicFor(String name, int size) {
+        switch (name) {
+            case "md":
+                return () -> new ManhattanHeuristic(size, false);
+            case "lc":
+                return () -> new ManhattanHeuristic(size, true);
+            case "wd": {
+                WalkingDistance table = WalkingDistance.forSize(size);
+                return table != null ? table::newHeuristic : null;
+            }
+            case "pdb": {
+                PatternDatabase database = PatternDatabase.forSize(size);
+                return database != null ? database::newHeuristic : null;
+            }
+            default:
+                throw new IllegalArgumentException("Okänd heuristik: " + name);
+        }
+    }
+
+    // resetPeaks – nollställer högsta användningen för alla heap-områden
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // peakHeap – summan av högsta användningen i alla heap-områden sedan resetPeaks
+    private static long peakHeap() {
+        long peak = 0L;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,39 @@
+package bench;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// BenchmarkMain startar JMH och skriver resultatet som JSON (jmh-result.json) om inget annat anges,
+// så att körningar kan sparas och jämföras över tid.
+// Varje mätning körs i en egen JVM (fork). Den får -Dhighscore.dir med en tillfällig mapp (eller mappen som
+// BenchmarkMain själv startades med), så att highscore-filerna aldrig skrivs i spelarens riktiga listor.
+//   java -jar benchmarks/target/benchmarks.jar [JMH-flaggor, t.ex. BoardBenchmark -p size=4]
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> list = new ArrayList<>(Arrays.asList(args));
+        if (!list.contains("-rf")) {
+            list.add("-rf");
+            list.add("json");
+        }
+        if (!list.contains("-rff")) {
+            list.add("-rff");
+            list.add("jmh-result.json");
+        }
+        // -jvmArgsPrepend används eftersom -jvmArgsAppend på kommandoraden ersätter @Fork(jvmArgsAppend = ...)
+        if (list.stream().noneMatch(arg -> arg.contains("-Dhighscore.dir="))) {
+            String dir = System.getProperty("highscore.dir");
+            if (dir == null) {
+                dir = Files.createTempDirectory("highscore-bench").toString();
+            }
+            list.add("-jvmArgsPrepend");
+            list.add("-Dhighscore.dir=" + dir);
+        }
+        org.openjdk.jmh.Main.main(list.toArray(new String[0]));
+    }
+}
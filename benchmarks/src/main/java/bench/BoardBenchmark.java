@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Mäter Board: move, undo/redo, shuffle och isSolved för brädstorlekar 2–8.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"2", "3", "4", "5", "6", "7", "8"})
+    public int size;
+
+    private Operations ops;
+
+    @Setup
+    public void setup() {
+        this.ops = Operations.create(this.size);
+    }
+
+    @Benchmark
+    public int move() {
+        return this.ops.move();
+    }
+
+    @Benchmark
+    public int undoRedo() {
+        return this.ops.undoRedo();
+    }
+
+    @Benchmark
+    public int shuffleUniform() {
+        return this.ops.shuffleUniform();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int shuffleRandomWalk() {
+        return this.ops.shuffleRandomWalk();
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return this.ops.isSolved();
+    }
+}
@@ -0,0 +1,45 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Jämför en bildruta (ett drag och hela brädet ritat i 800x800) för knapprutnätet och BoardCanvas.
+// 60 bilder per sekund betyder högst cirka 16 600 µs per bildruta.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardRendererBenchmark {
+
+    @Param({"4", "8", "16", "32"})
+    public int size;
+
+    private Operations ops;
+
+    @Setup
+    public void setup() {
+        this.ops = Operations.create(this.size);
+    }
+
+    @Benchmark
+    public int buttons() {
+        return this.ops.frameButtons();
+    }
+
+    @Benchmark
+    public int canvas() {
+        return this.ops.frameCanvas();
+    }
+}
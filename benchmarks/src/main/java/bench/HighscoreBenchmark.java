@@ -0,0 +1,49 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Mäter Highscore: load, save och addEntry (filerna skrivs i en tillfällig mapp).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighscoreBenchmark {
+
+    @Param({"2", "3", "4", "5", "6", "7", "8"})
+    public int size;
+
+    private Operations ops;
+
+    @Setup
+    public void setup() {
+        this.ops = Operations.create(this.size);
+    }
+
+    @Benchmark
+    public int load() {
+        return this.ops.highscoreLoad();
+    }
+
+    @Benchmark
+    public void save() {
+        this.ops.highscoreSave();
+    }
+
+    @Benchmark
+    public void addEntry() {
+        this.ops.highscoreAddEntry();
+    }
+}
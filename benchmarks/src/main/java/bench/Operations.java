@@ -0,0 +1,41 @@
+package bench;
+
+// Operations är bryggan mellan JMH och spelets klasser.
+// Spelet ligger i standardpaketet, som inte går att importera från ett namngivet paket
+// (och JMH kräver att benchmark-klasser har ett paket). Implementationen BenchOperations
+// ligger därför i standardpaketet och skapas via reflektion en gång per mätning.
+public interface Operations {
+
+    int move();               // Flyttar en bricka (slumpvandring av den tomma rutan)
+
+    int undoRedo();           // Ångrar och gör om ett drag
+
+    int shuffleUniform();     // Slumpar fram en ny lösbar ställning
+
+    int shuffleRandomWalk();  // Blandar med 5000 slumpmässiga drag (som spelet gjorde tidigare)
+
+    boolean isSolved();       // Kollar om brädet är löst
+
+    int highscoreLoad();      // Highscore.load
+
+    void highscoreSave();     // Highscore.save
+
+    void highscoreAddEntry(); // Highscore.addEntry
+
+    void refresh();           // BoardPanel.refresh
+
+    int frameButtons();       // Ett drag och en hel bildruta med BoardPanel (en knapp per ruta)
+
+    int frameCanvas();        // Ett drag och en hel bildruta med BoardCanvas (en komponent, färdigritade brickor)
+
+    // create – skapar implementationen för en brädstorlek
+    static Operations create(int size) {
+        try {
+            return (Operations) Class.forName("BenchOperations")
+                    .getConstructor(int.class)
+                    .newInstance(size);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Kunde inte skapa BenchOperations", e);
+        }
+    }
+}
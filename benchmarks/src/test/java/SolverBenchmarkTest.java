@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// SolverBenchmarkTest – en snabb kontroll av instanserna och konfigurationerna som mätningen använder:
+// Korfs ställningar ska vridas rätt (annars stämmer inte de kända längderna) och lösas med samma längd
+// av både Solver och ParallelSolver, och en ställning som når nodgränsen ska räknas som olöst
+class SolverBenchmarkTest {
+
+    private static final long NODE_LIMIT = 200_000_000L;
+
+    @Test
+    void korfInstancesHaveKnownLength() {
+        List<SolverBenchmark.Instance> instances = SolverBenchmark.parseInstances("korf:16,korf:42");
+        assertEquals(2, instances.size());
+        for (SolverBenchmark.Instance instance : instances) {
+            for (String config : new String[] {"ida-lc", "par-lc"}) {
+                SolverBenchmark.Result result = SolverBenchmark.run(config, instance.board, NODE_LIMIT, 4);
+                assertNotNull(result, config);
+                assertEquals(instance.expected, result.length, instance.name + " " + config);
+            }
+        }
+    }
+
+    @Test
+    void shuffledInstancesAreReproducible() {
+        List<SolverBenchmark.Instance> first = SolverBenchmark.parseInstances("3x3:5,5x5:2");
+        List<SolverBenchmark.Instance> second = SolverBenchmark.parseInstances("3x3:5,5x5:2");
+        assertEquals(7, first.size());
+        for (int i = 0; i < first.size(); ++i) {
+            assertEquals(first.get(i).name, second.get(i).name);
+            assertEquals(first.get(i).board.getHash(), second.get(i).board.getHash());
+            assertEquals(-1, first.get(i).expected);
+        }
+    }
+
+    @Test
+    void nodeLimitReportsUnsolved() {
+        SolverBenchmark.Instance instance = SolverBenchmark.parseInstances("5x5:1").get(0);
+        for (String config : new String[] {"ida-lc", "par-lc"}) {
+            SolverBenchmark.Result result = SolverBenchmark.run(config, instance.board, 10_000L, 4);
+            assertNotNull(result, config);
+            assertEquals(-1, result.length, config);
+        }
+    }
+}
@@ -1,64 +1,192 @@
+import java.nio.ByteBuffer; // Historiken skrivs och läses kompakt för sparade spel
+import java.util.Arrays;   // Importerar Arrays för att kunna kopiera listan med lyssnare
 import java.util.Random;   // Importerar klassen Random för att kunna slumpa drag
-import java.util.Stack;    // Importerar Stack-klassen för att kunna spara tidigare drag (undo/gör om)
+import java.util.SplittableRandom; // Slumpgenerator med bra spridning för seedade blandningar
 
 // Klassen Board är själva spelbrädet för 15-spelet
+// Brädet lagras som primitiva värden (ingen Tile per ruta):
+// upp till 4x4 packas varje ruta i 4 bitar i en enda long, upp till 16x16 används en byte per ruta,
+// och större bräden packas med så få bitar per ruta som värdena kräver (10 bitar för 32x32) i en long-array.
 public final class Board {
 
+    private static final int MAX_PACKED_SIZE = 4;  // Största storlek som får plats i en long (16 rutor * 4 bitar)
+    private static final int MAX_BYTE_SIZE = 16;   // Största storlek där varje värde (0–255) får plats i en byte
+    public static final int MAX_SIZE = 128;        // Största storlek (värdena får plats i 14 bitar)
+
     private final int SIZE;        // Antalet rader och kolumner på brädet (t.ex. 4 för 4x4)
-    private Tile[][] grid;         // Tvådimensionell array som innehåller alla brickor (Tiles)
+    private final int CELLS;       // Antalet rutor på brädet (SIZE * SIZE)
+    private final boolean PACKED;  // true om brädet lagras nibble-packat i en long
+    private long packed;           // Nibble-packat bräde: ruta i ligger i bitarna 4*i till 4*i+3
+    private final long solvedPacked; // Det packade värdet för ett löst bräde (används av initSolved)
+    private final byte[] cells;    // Brädet som byte-array (index = rad * SIZE + kolumn), null om inte byte-bräde
+    private final long[] wide;     // Bit-packat bräde för storlekar över 16, null annars
+    private final int BITS;        // Bitar per ruta i wide
+    private final Tile[] tiles;    // Delade Tile-objekt, ett per värde, så get() aldrig skapar nya objekt
     private int emptyRow;          // Radpositionen för den tomma rutan
     private int emptyCol;          // Kolumnpositionen för den tomma rutan
     private int moves;             // Räknare för hur många drag som gjorts i spelet
+    private int misplaced;         // Antal brickor som inte står på sin rätta plats (0 = löst)
+    private long seed;             // Fröet som senaste shuffleUniform använde (så spelet kan återskapas)
+    private boolean seeded;        // true om ställningen kommer från shuffleUniform(seed)
+    private long hash;             // Zobrist-hash av ställningen (XOR av en nyckel per ruta och värde)
+
+    private final MoveHistory history = new MoveHistory(); // Sparar gjorda och ångrade drag (2 bitar per drag, en skjuten rad som en post)
+    private BoardListener[] listeners = new BoardListener[0]; // Lyssnare som meddelas när rutor ändras
 
-    private final Stack<Move> undoStack = new Stack<>();  // Stack som sparar gjorda drag för att kunna ångra
-    private final Stack<Move> redoStack = new Stack<>();  // Stack som sparar ångrade drag för att kunna göra om
+    // Hur raden och kolumnen ändras för varje riktning i MoveHistory (upp, ner, vänster, höger)
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
 
     // Konstruktor – skapar ett nytt spelbräde med den storlek man anger
     public Board(int size) {
         if (size < 2) {       // Om storleken är mindre än 2, sätt den till 2 (minsta möjliga)
             size = 2;
         }
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Brädet får vara högst " + MAX_SIZE + "x" + MAX_SIZE);
+        }
 
         this.SIZE = size;     // Sätter brädets storlek
+        this.CELLS = size * size;
+        this.PACKED = size <= MAX_PACKED_SIZE;
+        this.cells = !this.PACKED && size <= MAX_BYTE_SIZE ? new byte[this.CELLS] : null;
+        this.BITS = 32 - Integer.numberOfLeadingZeros(this.CELLS - 1); // Bitar som behövs för värdet CELLS - 1
+        this.wide = size > MAX_BYTE_SIZE ? new long[(int) (((long) this.CELLS * this.BITS + 63) >>> 6)] : null;
+
+        // Tile-objekten delas av alla bräden, get() delar sedan ut samma objekt
+        this.tiles = Tile.cache(this.CELLS);
+
+        // Räknar ut hur ett löst packat bräde ser ut (1, 2, 3 ... och 0 sist)
+        long solved = 0L;
+        if (this.PACKED) {
+            for (int i = 0; i < this.CELLS - 1; ++i) {
+                solved |= (long) (i + 1) << (i << 2);
+            }
+        }
+        this.solvedPacked = solved;
+
         this.initSolved();    // Startar spelet med brädet i "löst" läge (1–15 i ordning)
     }
 
     // initSolved – gör ett färdigt bräde i ordning, med sista rutan tom
     public void initSolved() {
-        this.grid = new Tile[this.SIZE][this.SIZE]; // Skapar en ny 2D-array med Tiles
-        int value = 1;                              // Startvärde för numreringen av brickorna
-
-        // Loopar igenom varje rad i brädet
-        for (int row = 0; row < this.SIZE; ++row) {
-            // Loopar igenom varje kolumn i raden
-            for (int col = 0; col < this.SIZE; ++col) {
-
-                // Om det är den sista rutan på sista raden → den ska vara tom (0)
-                if (row == this.SIZE - 1 && col == this.SIZE - 1) {
-                    this.grid[row][col] = new Tile(0);   // Skapa en tom Tile med värde 0
-                    this.emptyRow = row;                 // Spara positionen för den tomma rutan (rad)
-                    this.emptyCol = col;                 // Spara positionen för den tomma rutan (kolumn)
-                } else {
-                    // Annars skapa en Tile med nästa nummer
-                    this.grid[row][col] = new Tile(value++);
-                }
+        if (this.PACKED) {
+            this.packed = this.solvedPacked;  // Hela det lösta brädet är en enda long
+        } else {
+            // Ruta i får värdet i + 1, sista rutan blir tom (0)
+            for (int i = 0; i < this.CELLS - 1; ++i) {
+                this.setCell(i, i + 1);
             }
+            this.setCell(this.CELLS - 1, 0);
         }
 
+        this.emptyRow = this.SIZE - 1;  // Den tomma rutan ligger längst ner till höger (rad)
+        this.emptyCol = this.SIZE - 1;  // Den tomma rutan ligger längst ner till höger (kolumn)
+
         this.moves = 0;           // Nollställer antalet drag
-        this.undoStack.clear();   // Tömmer stacken för ångra
-        this.redoStack.clear();   // Tömmer stacken för gör om
+        this.misplaced = 0;       // Ett löst bräde har inga felplacerade brickor
+        this.seeded = false;
+        this.rehash();            // Räknar om hashen för hela brädet
+        this.history.clear();     // Tömmer historiken för ångra och gör om
+        this.fireBoardChanged();  // Hela brädet har ändrats
+    }
+
+    // addListener – lägger till en lyssnare som meddelas när rutor ändras
+    public void addListener(BoardListener listener) {
+        BoardListener[] copy = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        copy[copy.length - 1] = listener;
+        this.listeners = copy;
+    }
+
+    // removeListener – tar bort en lyssnare
+    public void removeListener(BoardListener listener) {
+        for (int i = 0; i < this.listeners.length; ++i) {
+            if (this.listeners[i] == listener) {
+                BoardListener[] copy = new BoardListener[this.listeners.length - 1];
+                System.arraycopy(this.listeners, 0, copy, 0, i);
+                System.arraycopy(this.listeners, i + 1, copy, i, copy.length - i);
+                this.listeners = copy;
+                return;
+            }
+        }
+    }
+
+    // fireBoardChanged – meddelar lyssnarna att hela brädet kan ha ändrats
+    private void fireBoardChanged() {
+        for (BoardListener listener : this.listeners) {
+            listener.boardChanged();
+        }
+    }
+
+    // isMisplaced – 1 om värdet på rutan index är en bricka som inte står rätt, annars 0
+    private int isMisplaced(int index, int value) {
+        return value != 0 && value != index + 1 ? 1 : 0;
+    }
+
+    // cell – läser värdet på en ruta (index = rad * SIZE + kolumn)
+    private int cell(int index) {
+        if (this.PACKED) {
+            return (int) (this.packed >>> (index << 2)) & 0xF;
+        } else if (this.cells != null) {
+            return this.cells[index] & 0xFF;
+        }
+
+        // Bit-packat: värdet kan ligga över gränsen mellan två long
+        long bit = (long) index * this.BITS;
+        int word = (int) (bit >>> 6);
+        int offset = (int) bit & 63;
+        long value = this.wide[word] >>> offset;
+        if (offset + this.BITS > 64) {
+            value |= this.wide[word + 1] << (64 - offset);
+        }
+        return (int) value & ((1 << this.BITS) - 1);
+    }
+
+    // setCell – skriver ett värde till en ruta
+    private void setCell(int index, int value) {
+        if (this.PACKED) {
+            int shift = index << 2;
+            this.packed = (this.packed & ~(0xFL << shift)) | ((long) value << shift);
+            return;
+        } else if (this.cells != null) {
+            this.cells[index] = (byte) value;
+            return;
+        }
+
+        long bit = (long) index * this.BITS;
+        int word = (int) (bit >>> 6);
+        int offset = (int) bit & 63;
+        long mask = (1L << this.BITS) - 1;
+        this.wide[word] = (this.wide[word] & ~(mask << offset)) | ((long) value << offset);
+        if (offset + this.BITS > 64) {
+            int spill = 64 - offset; // Bitar som fick plats i första long
+            this.wide[word + 1] = (this.wide[word + 1] & ~(mask >>> spill)) | ((long) value >>> spill);
+        }
     }
 
     // swap – byter plats på två brickor i brädet
     private void swap(int r1, int c1, int r2, int c2) {
-        Tile temp = this.grid[r1][c1];      // Sparar första brickan tillfälligt
-        this.grid[r1][c1] = this.grid[r2][c2]; // Flyttar andra brickan till första platsen
-        this.grid[r2][c2] = temp;           // Flyttar tillbaka den sparade brickan till andra platsen
+        int i1 = r1 * this.SIZE + c1;       // Index för första rutan
+        int i2 = r2 * this.SIZE + c2;       // Index för andra rutan
+        int v1 = this.cell(i1);             // Första brickans värde
+        int v2 = this.cell(i2);             // Andra brickans värde
+        this.setCell(i1, v2);               // Flyttar andra brickan till första platsen
+        this.setCell(i2, v1);               // Flyttar första brickan till andra platsen
+
+        // Uppdaterar antalet felplacerade brickor utifrån de två rutorna som ändrades
+        this.misplaced += this.isMisplaced(i1, v2) + this.isMisplaced(i2, v1)
+                - this.isMisplaced(i1, v1) - this.isMisplaced(i2, v2);
+
+        // Tar bort de gamla värdenas nycklar ur hashen och lägger till de nya
+        this.hash ^= zobristKey(this.SIZE, i1, v1) ^ zobristKey(this.SIZE, i2, v2)
+                ^ zobristKey(this.SIZE, i1, v2) ^ zobristKey(this.SIZE, i2, v1);
     }
 
     // canMove – kollar om brickan kan flyttas (om den ligger bredvid den tomma rutan)
     public boolean canMove(int row, int col) {
+        if (row < 0 || row >= this.SIZE || col < 0 || col >= this.SIZE) {
+            return false;                       // Utanför brädet
+        }
         int dr = Math.abs(row - this.emptyRow); // Skillnad i rad
         int dc = Math.abs(col - this.emptyCol); // Skillnad i kolumn
         return dr + dc == 1;                    // Om de ligger exakt 1 steg ifrån varandra (sida vid sida)
@@ -69,82 +197,133 @@ public final class Board {
         if (!this.canMove(row, col)) {      // Om flytten inte är giltig
             return false;                   // Gör inget och returnera false
         } else {
-            Move m = new Move(row, col, this.emptyRow, this.emptyCol); // Skapar ett Move-objekt med info om flytten
-            this.swap(row, col, this.emptyRow, this.emptyCol);          // Byter plats mellan brickan och tomrutan
-            this.emptyRow = row;             // Uppdaterar tomrutans rad
-            this.emptyCol = col;             // Uppdaterar tomrutans kolumn
-            this.undoStack.push(m);          // Lägger flytten i undoStack (så vi kan ångra)
-            this.redoStack.clear();          // Tömmer redoStack (eftersom vi gjort ett nytt drag)
+            // Riktningen som den tomma rutan flyttas åt när brickan glider in i den
+            int direction = row < this.emptyRow ? MoveHistory.UP
+                    : row > this.emptyRow ? MoveHistory.DOWN
+                    : col < this.emptyCol ? MoveHistory.LEFT
+                    : MoveHistory.RIGHT;
+            this.moveEmpty(direction);       // Byter plats mellan brickan och tomrutan
+            this.history.push(direction);    // Sparar draget (så vi kan ångra), ångrade drag glöms bort
             ++this.moves;                    // Ökar drag-räknaren med 1
             return true;                     // Flytten lyckades
         }
     }
 
-    // undo – ångrar senaste draget om det går
+    // canSlide – kollar om brickan ligger i samma rad eller kolumn som den tomma rutan (och inte är den)
+    public boolean canSlide(int row, int col) {
+        if (row < 0 || row >= this.SIZE || col < 0 || col >= this.SIZE) {
+            return false;                       // Utanför brädet
+        }
+        return (row == this.emptyRow) != (col == this.emptyCol); // Samma rad eller samma kolumn, men inte båda
+    }
+
+    // slide – skjuter brickan och alla brickor mellan den och den tomma rutan ett steg mot tomrutan.
+    // Räknas som ett drag per bricka men sparas som en enda handling, så ångra och gör om tar hela raden.
+    public boolean slide(int row, int col) {
+        if (!this.canSlide(row, col)) {     // Om brickan inte ligger i linje med tomrutan
+            return false;
+        } else {
+            int direction = row < this.emptyRow ? MoveHistory.UP
+                    : row > this.emptyRow ? MoveHistory.DOWN
+                    : col < this.emptyCol ? MoveHistory.LEFT
+                    : MoveHistory.RIGHT;
+            int steps = Math.abs(row - this.emptyRow) + Math.abs(col - this.emptyCol);
+            this.moveEmpty(direction, steps);     // Alla brickor på sträckan glider ett steg
+            this.history.push(direction, steps);  // En post i historiken för hela raden
+            this.moves += steps;                  // Varje bricka räknas som ett drag
+            return true;
+        }
+    }
+
+    // undo – ångrar senaste draget om det går (en hel rad från slide ångras på en gång)
     public boolean undo() {
-        if (this.undoStack.isEmpty()) {      // Om det inte finns något att ångra
+        int entry = this.history.undo();     // Tar senaste draget från historiken
+        if (entry < 0) {                     // Om det inte finns något att ångra
             return false;                    // Gör inget
         } else {
-            Move move = this.undoStack.pop(); // Tar bort senaste draget från stacken
-            this.swap(move.toRow, move.toCol, move.fromRow, move.fromCol); // Byter tillbaka brickan
-            this.emptyRow = move.toRow;      // Uppdaterar tomrutans rad
-            this.emptyCol = move.toCol;      // Uppdaterar tomrutans kolumn
-            this.redoStack.push(move);       // Sparar draget i redoStack (så vi kan göra om)
-            this.moves = Math.max(0, this.moves - 1); // Minskar antalet drag (men inte under 0)
+            int direction = MoveHistory.direction(entry);
+            int steps = MoveHistory.length(entry); // 1, eller antal brickor i en skjuten rad
+            this.moveEmpty(MoveHistory.opposite(direction), steps); // Flyttar tillbaka den tomma rutan
+            this.moves = Math.max(0, this.moves - steps); // Minskar antalet drag (men inte under 0)
             return true;                     // Ångringen lyckades
         }
     }
 
     // redo – gör om ett ångrat drag om det går
     public boolean redo() {
-        if (this.redoStack.isEmpty()) {       // Om det inte finns något att göra om
+        int entry = this.history.redo();     // Tar nästa ångrade drag
+        if (entry < 0) {                     // Om det inte finns något att göra om
             return false;
         } else {
-            Move move = this.redoStack.pop(); // Tar bort senaste ångrade draget
-            this.swap(move.fromRow, move.fromCol, move.toRow, move.toCol); // Gör draget igen
-            this.emptyRow = move.fromRow;     // Uppdaterar tomrutans rad
-            this.emptyCol = move.fromCol;     // Uppdaterar tomrutans kolumn
-            this.undoStack.push(move);        // Lägger tillbaka draget i undoStack
-            ++this.moves;                     // Ökar antal drag
+            int steps = MoveHistory.length(entry);
+            this.moveEmpty(MoveHistory.direction(entry), steps); // Gör draget igen
+            this.moves += steps;              // Ökar antal drag
             return true;                      // Redo lyckades
         }
     }
 
+    // moveEmpty – flyttar den tomma rutan ett steg åt en riktning (brickan där glider åt andra hållet)
+    private void moveEmpty(int direction) {
+        this.moveEmpty(direction, 1);
+    }
+
+    // moveEmpty – flyttar den tomma rutan steps steg åt en riktning. Lyssnarna får ett enda lineChanged
+    // för hela sträckan (så den ritas om en gång) och sedan ett emptyMoved per steg.
+    private void moveEmpty(int direction, int steps) {
+        int fromRow = this.emptyRow;
+        int fromCol = this.emptyCol;
+        for (int i = 0; i < steps; ++i) {
+            int row = this.emptyRow + DR[direction];
+            int col = this.emptyCol + DC[direction];
+            this.swap(row, col, this.emptyRow, this.emptyCol);
+            this.emptyRow = row;
+            this.emptyCol = col;
+        }
+        for (BoardListener listener : this.listeners) {
+            listener.lineChanged(fromRow, fromCol, this.emptyRow, this.emptyCol); // Från första brickan till nya tomrutan
+        }
+        for (int i = 0; i < steps; ++i) {
+            for (BoardListener listener : this.listeners) {
+                listener.emptyMoved(direction);
+            }
+        }
+    }
+
     // canUndo – kollar om det finns något att ångra
     public boolean canUndo() {
-        return !this.undoStack.isEmpty(); // True om stacken inte är tom
+        return this.history.canUndo();
     }
 
     // canRedo – kollar om det finns något att göra om
     public boolean canRedo() {
-        return !this.redoStack.isEmpty(); // True om redoStack inte är tom
+        return this.history.canRedo();
+    }
+
+    // setHistoryLimit – sätter ett tak för minnet till ångra: minst maxMoves drag sparas (0 = obegränsat)
+    public void setHistoryLimit(long maxMoves) {
+        this.history.setLimit(maxMoves);
     }
 
-    // shuffle – blandar brädet genom att göra slumpmässiga drag
+    // shuffle – blandar brädet genom att göra slumpmässiga drag.
+    // Stora bräden blandas dåligt av en slumpvandring – använd shuffleUniform för dem.
     public void shuffle(int steps, Random rand) {
+        int[] valid = new int[4];           // Sparar giltiga riktningar (återanvänds för varje steg)
         for (int i = 0; i < steps; ++i) {   // Gör ett antal steg (t.ex. 1000 blandningar)
-            int[][] neigh = new int[][]{    // Möjliga rutor runt den tomma
-                    {this.emptyRow - 1, this.emptyCol}, // Upp
-                    {this.emptyRow + 1, this.emptyCol}, // Ner
-                    {this.emptyRow, this.emptyCol - 1}, // Vänster
-                    {this.emptyRow, this.emptyCol + 1}  // Höger
-            };
-            int[] valid = new int[4];       // Sparar giltiga positioner
             int count = 0;                  // Räknar antal giltiga grannar
 
-            // Tar bort de rutor som ligger utanför brädet
-            for (int j = 0; j < neigh.length; ++j) {
-                int rr = neigh[j][0];
-                int cc = neigh[j][1];
+            // Tar bort de riktningar (upp, ner, vänster, höger) som leder utanför brädet
+            for (int dir = 0; dir < 4; ++dir) {
+                int rr = this.emptyRow + DR[dir];
+                int cc = this.emptyCol + DC[dir];
                 if (rr >= 0 && rr < this.SIZE && cc >= 0 && cc < this.SIZE) {
-                    valid[count++] = j;
+                    valid[count++] = dir;
                 }
             }
 
             // Väljer en slumpmässig giltig granne
             int pick = valid[rand.nextInt(count)];
-            int nr = neigh[pick][0];
-            int nc = neigh[pick][1];
+            int nr = this.emptyRow + DR[pick];
+            int nc = this.emptyCol + DC[pick];
 
             // Byter plats med den valda grannen
             this.swap(this.emptyRow, this.emptyCol, nr, nc);
@@ -152,34 +331,212 @@ public final class Board {
             this.emptyCol = nc;
         }
 
+        this.seeded = false;      // Ställningen kan inte återskapas från ett frö
         this.moves = 0;           // Nollställer drag-räknaren
-        this.undoStack.clear();   // Rensar undo
-        this.redoStack.clear();   // Rensar redo
+        this.history.clear();     // Rensar ångra och gör om
+        this.fireBoardChanged();  // Hela brädet har ändrats
     }
 
-    // isSolved – kollar om alla brickor står i rätt ordning (vinstläge)
-    public boolean isSolved() {
-        int expected = 1; // Nästa nummer som ska finnas
+    // shuffleUniform – slumpar fram en lösbar ställning direkt, där alla lösbara ställningar är lika sannolika.
+    // Samma frö ger alltid samma ställning, så ett spel kan återskapas.
+    public void shuffleUniform(long seed) {
+        SplittableRandom rand = new SplittableRandom(seed); // Blandar fröet väl, även för närliggande frön
 
-        for (int row = 0; row < this.SIZE; ++row) {
-            for (int col = 0; col < this.SIZE; ++col) {
+        do {
+            // Börjar från löst läge och blandar alla värden (även den tomma rutan) med Fisher–Yates
+            for (int i = 0; i < this.CELLS; ++i) {
+                this.setCell(i, (i + 1) % this.CELLS);
+            }
 
-                // Sista rutan ska vara tom
-                if (row == this.SIZE - 1 && col == this.SIZE - 1) {
-                    if (!this.grid[row][col].isEmpty()) {
-                        return false; // Om sista inte är tom, inte löst
-                    }
-                }
-                // Kollar om siffran inte är den man förväntar sig
-                else if (this.grid[row][col].value() != expected) {
-                    return false; // Fel siffra → inte löst
+            boolean oddPermutation = false; // Varje byte av två olika rutor vänder pariteten
+            for (int i = this.CELLS - 1; i > 0; --i) {
+                int j = rand.nextInt(i + 1);
+                if (j != i) {
+                    int temp = this.cell(i);
+                    this.setCell(i, this.cell(j));
+                    this.setCell(j, temp);
+                    oddPermutation = !oddPermutation;
                 }
+            }
 
-                ++expected; // Gå vidare till nästa siffra
+            // Letar upp den tomma rutan
+            int empty = 0;
+            while (this.cell(empty) != 0) {
+                ++empty;
             }
+            this.emptyRow = empty / this.SIZE;
+            this.emptyCol = empty % this.SIZE;
+
+            // Ställningen är lösbar om permutationens paritet är samma som den tomma rutans avstånd till sin målruta.
+            // Annars byts två brickor (inte den tomma), vilket gör den lösbar och behåller jämn fördelning.
+            int distance = (this.SIZE - 1 - this.emptyRow) + (this.SIZE - 1 - this.emptyCol);
+            if (oddPermutation != ((distance & 1) == 1)) {
+                int a = empty == 0 ? 1 : 0;
+                int b = empty <= 1 ? 2 : 1;
+                int temp = this.cell(a);
+                this.setCell(a, this.cell(b));
+                this.setCell(b, temp);
+            }
+
+            // Räknar antalet felplacerade brickor en gång
+            this.misplaced = 0;
+            for (int i = 0; i < this.CELLS; ++i) {
+                this.misplaced += this.isMisplaced(i, this.cell(i));
+            }
+        } while (this.misplaced == 0); // Ett redan löst bräde blandas om
+
+        this.rehash();            // Räknar om hashen för hela brädet
+        this.seed = seed;
+        this.seeded = true;
+        this.moves = 0;           // Nollställer drag-räknaren
+        this.history.clear();     // Rensar ångra och gör om
+        this.fireBoardChanged();  // Hela brädet har ändrats
+    }
+
+    // getSeed – hämtar fröet som senaste shuffleUniform använde
+    public long getSeed() {
+        return this.seed;
+    }
+
+    // isSeeded – true om ställningen kom från shuffleUniform(getSeed()) och kan återskapas från fröet
+    public boolean isSeeded() {
+        return this.seeded;
+    }
+
+    // setCells – ställer upp brädet från värdena ruta för ruta (index = rad * storlek + kolumn, 0 = tom).
+    // Värdena måste vara en lösbar permutation av 0 till storlek² - 1. Drag och historik nollställs.
+    public void setCells(int[] values) {
+        this.place(values);
+        this.moves = 0;           // Nollställer drag-räknaren
+        this.history.clear();     // Rensar ångra och gör om
+        this.fireBoardChanged();  // Hela brädet har ändrats
+    }
+
+    // restore – återställer ett sparat spel: ställningen (som i setCells), antal drag och historiken för
+    // ångra/gör om som den skrevs av writeHistory
+    public void restore(int[] values, int moves, ByteBuffer history) {
+        this.place(values);
+        this.moves = Math.max(0, moves);
+        this.history.readFrom(history);
+        this.fireBoardChanged();
+    }
+
+    // historySize – antal byte som writeHistory skriver
+    public int historySize() {
+        return this.history.encodedSize();
+    }
+
+    // writeHistory – skriver historiken för ångra/gör om kompakt (se MoveHistory.writeTo)
+    public void writeHistory(ByteBuffer out) {
+        this.history.writeTo(out);
+    }
+
+    // place – kontrollerar värdena och ställer upp brädet (utan att röra drag, historik eller lyssnare)
+    private void place(int[] values) {
+        if (values.length != this.CELLS) {
+            throw new IllegalArgumentException("Fel antal rutor: " + values.length + " (ska vara " + this.CELLS + ")");
+        }
+        boolean[] seen = new boolean[this.CELLS];
+        for (int value : values) {
+            if (value < 0 || value >= this.CELLS || seen[value]) {
+                throw new IllegalArgumentException("Rutorna är inte en permutation av 0–" + (this.CELLS - 1));
+            }
+            seen[value] = true;
+        }
+        if (!isSolvable(this.SIZE, values)) {
+            throw new IllegalArgumentException("Ställningen går inte att lösa");
+        }
+
+        this.misplaced = 0;
+        for (int i = 0; i < this.CELLS; ++i) {
+            int value = values[i];
+            this.setCell(i, value);
+            this.misplaced += this.isMisplaced(i, value);
+            if (value == 0) {
+                this.emptyRow = i / this.SIZE;
+                this.emptyCol = i % this.SIZE;
+            }
+        }
+
+        this.rehash();            // Räknar om hashen för hela brädet
+        this.seeded = false;
+    }
+
+    // toArray – kopierar brädet till en int-array (index = rad * storlek + kolumn, 0 = tom)
+    public int[] toArray() {
+        int[] values = new int[this.CELLS];
+        for (int i = 0; i < this.CELLS; ++i) {
+            values[i] = this.cell(i);
+        }
+        return values;
+    }
+
+    // isSolvable – kollar om ställningen på brädet går att lösa
+    public boolean isSolvable() {
+        return isSolvable(this.SIZE, this.toArray());
+    }
+
+    // isSolvable – en ställning (permutation av 0 till storlek² - 1) går att lösa om permutationens paritet
+    // är samma som den tomma rutans avstånd till sin målruta (samma villkor som shuffleUniform använder)
+    public static boolean isSolvable(int size, int[] values) {
+        int empty = 0;
+        while (values[empty] != 0) {
+            ++empty;
+        }
+        int distance = (size - 1 - empty / size) + (size - 1 - empty % size);
+        return (countInversions(values) & 1) == (distance & 1);
+    }
+
+    // countInversions – antal par i < j där värdet på i är större än på j, med den tomma rutan räknad som
+    // största värdet (den hör hemma sist). Ett Fenwick-träd ger O(n log n) även för mycket stora bräden.
+    static long countInversions(int[] values) {
+        int n = values.length;
+        int[] tree = new int[n + 1]; // tree räknar värden (1..n) som redan setts till höger
+        long inversions = 0L;
+        for (int i = n - 1; i >= 0; --i) {
+            int value = values[i] == 0 ? n : values[i];
+            for (int k = value - 1; k > 0; k -= k & -k) {
+                inversions += tree[k];   // Mindre värden till höger
+            }
+            for (int k = value; k <= n; k += k & -k) {
+                ++tree[k];
+            }
+        }
+        return inversions;
+    }
+
+    // getHash – 64-bitars Zobrist-hash av ställningen. Hålls uppdaterad vid varje drag (O(1)) och är
+    // densamma för samma ställning på alla bräden av samma storlek, så den kan användas som nyckel i tabeller.
+    public long getHash() {
+        return this.hash;
+    }
+
+    // zobristKey – nyckeln för värdet value på ruta index. Nycklarna räknas fram med SplitMix64 istället för
+    // att slumpas till en tabell, så de tar inget minne och är lika i alla körningar.
+    static long zobristKey(int size, int index, int value) {
+        long z = (((long) size << 48) | ((long) index << 24) | value) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // rehash – räknar hashen från början (efter att hela brädet har ställts om)
+    private void rehash() {
+        long h = 0L;
+        for (int i = 0; i < this.CELLS; ++i) {
+            h ^= zobristKey(this.SIZE, i, this.cell(i));
         }
+        this.hash = h;
+    }
 
-        return true; // Allt stämmer → brädet är löst
+    // isSolved – kollar om alla brickor står i rätt ordning (vinstläge), utan att gå igenom brädet
+    public boolean isSolved() {
+        return this.misplaced == 0;
+    }
+
+    // getMisplaced – hämtar hur många brickor som inte står på sin rätta plats (ett enkelt mått på hur nära man är)
+    public int getMisplaced() {
+        return this.misplaced;
     }
 
     // getMoves – hämtar hur många drag som gjorts
@@ -189,7 +546,17 @@ public final class Board {
 
     // get – hämtar en Tile (ruta) från en viss plats på brädet
     public Tile get(int row, int col) {
-        return this.grid[row][col];
+        return this.tiles[this.cell(row * this.SIZE + col)]; // Delar ut den cachade Tile för värdet
+    }
+
+    // getEmptyRow – hämtar raden för den tomma rutan
+    public int getEmptyRow() {
+        return this.emptyRow;
+    }
+
+    // getEmptyCol – hämtar kolumnen för den tomma rutan
+    public int getEmptyCol() {
+        return this.emptyCol;
     }
 
     // size – hämtar storleken på brädet
@@ -0,0 +1,250 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+
+// Klassen BoardCanvas visar spelbrädet som en enda komponent som ritar alla rutor själv.
+// Varje bricka ritas en gång till en bild som sparas (per rutstorlek), så att rita om brädet bara
+// är att kopiera bilder. Klick räknas om till rad och kolumn. Passar stora bräden där en knapp per ruta blir segt.
+public final class BoardCanvas extends JComponent implements BoardView {
+
+    private static final int MARGIN = 10;           // Tomrum runt brädet
+    private static final int MIN_CELL = 16;         // Minsta rutstorlek i önskad fönsterstorlek
+    private static final int MAX_CELL = 80;         // Största rutstorlek i önskad fönsterstorlek
+    private static final int PREFERRED_BOARD = 640; // Ungefärlig önskad bredd på brädet i pixlar
+
+    private static final Color TILE = new Color(0xEE, 0xEE, 0xEE);      // Brickans bakgrund
+    private static final Color TILE_EDGE = new Color(0xA0, 0xA0, 0xA0); // Brickans kant
+    private static final Color EMPTY = Color.LIGHT_GRAY;                 // Den tomma rutan
+    private static final Color HIGHLIGHT = Color.ORANGE;                 // Markerad bricka (tips)
+
+    private final Board board;         // Själva spelbrädet (modell)
+    private GameController controller; // Hanterar klick och logik
+
+    private BufferedImage[] glyphs;    // Färdigritade brickor, index = värde (0 = tom ruta)
+    private BufferedImage highlighted; // Färdigritad markerad bricka (för highlightValue)
+    private int highlightValue;        // Värdet på brickan som highlighted ritades för
+    private int glyphCell;             // Rutstorleken som bilderna ritades för
+
+    private int cell;                  // Rutstorlek i pixlar (räknas om när komponenten ändrar storlek)
+    private int gap;                   // Mellanrum mellan rutorna
+    private int originX;               // Övre vänstra hörnet av brädet
+    private int originY;
+
+    private int highlightRow = -1;     // Raden för den markerade brickan (-1 = ingen markering)
+    private int highlightCol = -1;     // Kolumnen för den markerade brickan
+
+    // Skapar komponenten för ett bräde
+    public BoardCanvas(Board board) {
+        this.board = board;
+        this.setOpaque(true);
+
+        int n = board.size();
+        int preferredCell = Math.max(MIN_CELL, Math.min(MAX_CELL, PREFERRED_BOARD / n));
+        int side = n * preferredCell + 2 * MARGIN;
+        this.setPreferredSize(new Dimension(side, side));
+
+        // Klick räknas om till en ruta
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                BoardCanvas.this.onPress(e.getX(), e.getY());
+            }
+        });
+
+        // Lyssna på brädet så bara de rutor som ändras ritas om
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int row, int col) {
+                BoardCanvas.this.clearHighlight();
+                BoardCanvas.this.repaintCell(row, col);
+            }
+
+            @Override
+            public void lineChanged(int fromRow, int fromCol, int toRow, int toCol) {
+                BoardCanvas.this.clearHighlight();
+                BoardCanvas.this.repaintCells(Math.min(fromRow, toRow), Math.min(fromCol, toCol),
+                        Math.max(fromRow, toRow), Math.max(fromCol, toCol));
+            }
+
+            @Override
+            public void boardChanged() {
+                BoardCanvas.this.refresh();
+            }
+        });
+    }
+
+    // Kopplar komponenten till GameController så klick fungerar
+    @Override
+    public void setController(GameController controller) {
+        this.controller = controller;
+    }
+
+    // Ritar om hela brädet
+    @Override
+    public void refresh() {
+        this.highlightRow = -1; // En ny ställning har ingen markering
+        this.repaint();
+    }
+
+    // Markerar en bricka (t.ex. ett tips) tills brädet ändras nästa gång
+    @Override
+    public void highlight(int row, int col) {
+        this.clearHighlight();
+        this.highlightRow = row;
+        this.highlightCol = col;
+        this.repaintCell(row, col);
+    }
+
+    // Tar bort markeringen om det finns någon
+    private void clearHighlight() {
+        if (this.highlightRow >= 0) {
+            int row = this.highlightRow;
+            this.highlightRow = -1;
+            this.repaintCell(row, this.highlightCol);
+        }
+    }
+
+    // Ritar brädet: bara rutorna som ligger inom området som ska ritas om kopieras
+    @Override
+    protected void paintComponent(Graphics g) {
+        this.layoutCells();
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        }
+        g.setColor(this.getBackground() != null ? this.getBackground() : Color.WHITE);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int n = this.board.size();
+        int step = this.cell + this.gap;
+        if (this.cell <= 0) {
+            return; // För liten för att rita något
+        }
+
+        // Rutorna som berörs av clip (alla andra hoppas över)
+        int firstCol = Math.max(0, (clip.x - this.originX) / step);
+        int lastCol = Math.min(n - 1, (clip.x + clip.width - this.originX) / step);
+        int firstRow = Math.max(0, (clip.y - this.originY) / step);
+        int lastRow = Math.min(n - 1, (clip.y + clip.height - this.originY) / step);
+
+        for (int row = firstRow; row <= lastRow; ++row) {
+            int y = this.originY + row * step;
+            for (int col = firstCol; col <= lastCol; ++col) {
+                int x = this.originX + col * step;
+                g.drawImage(this.glyphFor(row, col), x, y, null);
+            }
+        }
+    }
+
+    // glyphFor – hämtar bilden för rutan (ritas första gången den behövs)
+    private BufferedImage glyphFor(int row, int col) {
+        int value = this.board.get(row, col).value();
+
+        if (row == this.highlightRow && col == this.highlightCol && value != 0) {
+            if (this.highlighted == null || this.highlightValue != value) {
+                this.highlighted = this.renderGlyph(value, HIGHLIGHT);
+                this.highlightValue = value;
+            }
+            return this.highlighted;
+        }
+
+        BufferedImage glyph = this.glyphs[value];
+        if (glyph == null) {
+            glyph = this.renderGlyph(value, value == 0 ? EMPTY : TILE);
+            this.glyphs[value] = glyph;
+        }
+        return glyph;
+    }
+
+    // renderGlyph – ritar en bricka (eller den tomma rutan) till en ny bild
+    private BufferedImage renderGlyph(int value, Color background) {
+        int size = this.cell;
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(background);
+            g.fillRect(0, 0, size, size);
+            g.setColor(value == 0 ? Color.GRAY : TILE_EDGE);
+            g.drawRect(0, 0, size - 1, size - 1);
+            if (value == 0) {
+                g.drawRect(1, 1, size - 3, size - 3); // Tjockare ram runt den tomma rutan, som i BoardPanel
+                return image;
+            }
+
+            // Siffran centrerad, så stor som får plats
+            String text = Integer.toString(value);
+            float fontSize = size * (text.length() <= 2 ? 0.45F : 0.34F);
+            g.setFont(this.getFont() != null
+                    ? this.getFont().deriveFont(Font.BOLD, fontSize)
+                    : new Font(Font.SANS_SERIF, Font.BOLD, Math.round(fontSize)));
+            FontMetrics metrics = g.getFontMetrics();
+            int x = (size - metrics.stringWidth(text)) / 2;
+            int y = (size - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.setColor(Color.DARK_GRAY);
+            g.drawString(text, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // layoutCells – räknar ut rutstorleken för komponentens nuvarande storlek (bilderna ritas om om den ändrats)
+    private void layoutCells() {
+        int n = this.board.size();
+        int side = Math.min(this.getWidth(), this.getHeight()) - 2 * MARGIN;
+        this.gap = side / n >= 24 ? 4 : 1;
+        this.cell = Math.max(0, (side - (n - 1) * this.gap) / n);
+
+        int boardSide = n * this.cell + (n - 1) * this.gap;
+        this.originX = (this.getWidth() - boardSide) / 2;
+        this.originY = (this.getHeight() - boardSide) / 2;
+
+        if (this.glyphs == null || this.glyphCell != this.cell) {
+            this.glyphs = new BufferedImage[n * n];
+            this.highlighted = null;
+            this.glyphCell = this.cell;
+        }
+    }
+
+    // repaintCell – ber Swing rita om en enda ruta
+    private void repaintCell(int row, int col) {
+        this.repaintCells(row, col, row, col);
+    }
+
+    // repaintCells – ritar om rektangeln av rutor från (row0, col0) till (row1, col1) i ett enda anrop
+    private void repaintCells(int row0, int col0, int row1, int col1) {
+        int step = this.cell + this.gap;
+        if (this.cell <= 0) {
+            this.repaint(); // Inte ritad än: rita allt
+            return;
+        }
+        this.repaint(this.originX + col0 * step, this.originY + row0 * step,
+                (col1 - col0) * step + this.cell, (row1 - row0) * step + this.cell);
+    }
+
+    // onPress – räknar om en musposition till en ruta och skickar klicket vidare
+    private void onPress(int x, int y) {
+        int step = this.cell + this.gap;
+        if (this.controller == null || this.cell <= 0 || x < this.originX || y < this.originY) {
+            return;
+        }
+        int col = (x - this.originX) / step;
+        int row = (y - this.originY) / step;
+        int n = this.board.size();
+        boolean inGap = (x - this.originX) % step >= this.cell || (y - this.originY) % step >= this.cell;
+        if (row < n && col < n && !inGap && !this.board.get(row, col).isEmpty()) {
+            this.controller.onTileClicked(row, col);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// Gränssnittet BoardListener meddelas när brädet ändras, så att t.ex. BoardPanel bara behöver
+// rita om de rutor som faktiskt ändrades istället för hela brädet.
+public interface BoardListener {
+
+    // En enskild ruta har fått ett nytt värde (efter move, undo eller redo)
+    void cellChanged(int row, int col);
+
+    // Rutorna på en rak linje från (fromRow, fromCol) till (toRow, toCol) har fått nya värden, t.ex. när
+    // en hel rad brickor sköts på en gång. Standard är ett cellChanged per ruta; den som ritar kan
+    // istället rita om hela sträckan på en gång.
+    default void lineChanged(int fromRow, int fromCol, int toRow, int toCol) {
+        int dr = Integer.signum(toRow - fromRow);
+        int dc = Integer.signum(toCol - fromCol);
+        for (int row = fromRow, col = fromCol; ; row += dr, col += dc) {
+            this.cellChanged(row, col);
+            if (row == toRow && col == toCol) {
+                break;
+            }
+        }
+    }
+
+    // Den tomma rutan flyttades ett steg åt direction (MoveHistory.UP, DOWN, LEFT eller RIGHT),
+    // efter move, slide, undo eller redo. Skickas en gång per steg, efter lineChanged för rutorna.
+    default void emptyMoved(int direction) {
+    }
+
+    // Hela brädet kan ha ändrats (efter blandning eller ett nytt spel)
+    void boardChanged();
+}
@@ -3,14 +3,21 @@ import java.awt.GridLayout;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.border.Border;
 
 // Klassen BoardPanel visar själva spelbrädet på skärmen.
 // Den innehåller alla rutor (Tiles) som knappar och uppdateras när man flyttar brickor.
-public final class BoardPanel extends JPanel {
+public final class BoardPanel extends JPanel implements BoardView {
+
+    // Ramen runt den tomma rutan – skapas en gång och delas av alla paneler
+    private static final Border EMPTY_BORDER = BorderFactory.createLineBorder(Color.GRAY, 2);
 
     private final JButton[][] buttons; // Knapparna som representerar rutorna på brädet
     private final Board board;         // Själva spelbrädet (modell)
     private GameController controller; // Hanterar klick och logik
+    private Border defaultBorder;      // Knapparnas vanliga ram (sätts tillbaka när en ruta inte längre är tom)
+    private int highlightRow = -1;     // Raden för den markerade brickan (-1 = ingen markering)
+    private int highlightCol = -1;     // Kolumnen för den markerade brickan
 
     // Skapar panelen och bygger upp rutnätet
     public BoardPanel(Board board) {
@@ -32,9 +39,24 @@ public final class BoardPanel extends JPanel {
 
         // Uppdatera knapparnas text och färg
         this.refresh();
+
+        // Lyssna på brädet så bara de rutor som ändras ritas om
+        board.addListener(new BoardListener() {
+            @Override
+            public void cellChanged(int row, int col) {
+                BoardPanel.this.clearHighlight();
+                BoardPanel.this.updateCell(row, col);
+            }
+
+            @Override
+            public void boardChanged() {
+                BoardPanel.this.refresh();
+            }
+        });
     }
 
     // Kopplar panelen till GameController så klick fungerar
+    @Override
     public void setController(GameController controller) {
         this.controller = controller;
     }
@@ -50,6 +72,9 @@ public final class BoardPanel extends JPanel {
                 final int cc = col; // Spara kolumn
 
                 JButton button = new JButton(); // Skapa ny knapp
+                if (this.defaultBorder == null) {
+                    this.defaultBorder = button.getBorder(); // Kom ihåg den vanliga ramen
+                }
 
                 // Gör texten på knappen större
                 button.setFont(button.getFont().deriveFont(24.0F));
@@ -72,34 +97,59 @@ public final class BoardPanel extends JPanel {
     }
 
     // Uppdaterar alla knappar beroende på hur brädet ser ut just nu
+    @Override
     public void refresh() {
+        long start = Metrics.now();
         int n = this.board.size();
+        this.highlightRow = -1; // En ny ställning har ingen markering
 
         // Gå igenom varje ruta
         for (int row = 0; row < n; ++row) {
             for (int col = 0; col < n; ++col) {
-                Tile tile = this.board.get(row, col);   // Hämta brickan
-                JButton button = this.buttons[row][col]; // Hämta motsvarande knapp
-
-                // Sätt texten på knappen (eller tom om det är den tomma rutan)
-                button.setText(tile.toString());
-
-                if (tile.isEmpty()) {
-                    // Om det är den tomma rutan (0) → grå och inaktiv
-                    button.setEnabled(false);
-                    button.setBackground(Color.LIGHT_GRAY);
-                    button.setForeground(Color.DARK_GRAY);
-                    button.setBorder(BorderFactory.createLineBorder(Color.GRAY, 2));
-                } else {
-                    // Annars → normal färg och aktiv
-                    button.setEnabled(true);
-                    button.setBackground((Color) null);
-                    button.setForeground((Color) null);
-                }
+                this.updateCell(row, col);
             }
         }
+        Metrics.REFRESH.record(start);
+    }
+
+    // Uppdaterar en enda knapp (knappen ritar själv om sitt eget område när något ändras)
+    private void updateCell(int row, int col) {
+        Tile tile = this.board.get(row, col);   // Hämta brickan
+        JButton button = this.buttons[row][col]; // Hämta motsvarande knapp
+
+        // Sätt texten på knappen (eller tom om det är den tomma rutan)
+        button.setText(tile.toString());
+
+        if (tile.isEmpty()) {
+            // Om det är den tomma rutan (0) → grå och inaktiv
+            button.setEnabled(false);
+            button.setBackground(Color.LIGHT_GRAY);
+            button.setForeground(Color.DARK_GRAY);
+            button.setBorder(EMPTY_BORDER);
+        } else {
+            // Annars → normal färg, vanlig ram och aktiv
+            button.setEnabled(true);
+            button.setBackground((Color) null);
+            button.setForeground((Color) null);
+            button.setBorder(this.defaultBorder);
+        }
+    }
 
-        // Rita om panelen så förändringen syns
-        this.repaint();
+    // Markerar en bricka (t.ex. ett tips) tills brädet ändras nästa gång
+    @Override
+    public void highlight(int row, int col) {
+        this.clearHighlight();
+        this.highlightRow = row;
+        this.highlightCol = col;
+        this.buttons[row][col].setBackground(Color.ORANGE);
+    }
+
+    // Tar bort markeringen om det finns någon
+    private void clearHighlight() {
+        if (this.highlightRow >= 0) {
+            int row = this.highlightRow;
+            this.highlightRow = -1;
+            this.updateCell(row, this.highlightCol);
+        }
     }
 }
@@ -0,0 +1,13 @@
+// Gränssnittet BoardView är det GameController behöver av en vy som visar brädet.
+// Det finns två vyer: BoardPanel (en knapp per ruta) och BoardCanvas (ritar alla rutor själv).
+public interface BoardView {
+
+    // Kopplar vyn till GameController så klick fungerar
+    void setController(GameController controller);
+
+    // Ritar om hela brädet
+    void refresh();
+
+    // Markerar en bricka (t.ex. ett tips) tills brädet ändras nästa gång
+    void highlight(int row, int col);
+}
@@ -0,0 +1,283 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Klassen DistanceTable är en fullständig tabell över det kortaste antalet drag till målet för varje
+// lösbar ställning på ett litet bräde (12 för 2x2, 181 440 för 3x3). Tabellen räknas ut en gång (main)
+// med en bredden-först-sökning från målläget och minnesmappas sedan vid start, så både avståndet
+// och det bästa draget slås upp direkt utan någon sökning.
+// Varje ställning har ett eget index (perfekt hash): den tomma rutans plats gånger (n-1)!/2 plus
+// Lehmer-rangen av brickorna i läsordning delat med 2. Två ställningar vars rang bara skiljer på sista
+// biten har de två sista brickorna bytta, så precis en av dem är lösbar.
+public final class DistanceTable {
+
+    public static final int MAX_SIZE = 3;          // 4x4 har ~10^13 ställningar, för många för en tabell
+    private static final int MAGIC = 0x44535431;   // "DST1" – känns igen i början av filen
+    private static final int HEADER = 8;           // MAGIC och storleken
+    private static final int NONE = 0xFF;          // Markerar en ställning som ännu inte nåtts
+
+    private static final int[] DR = {-1, 1, 0, 0}; // Radändring för MoveHistory.UP, DOWN, LEFT, RIGHT
+    private static final int[] DC = {0, 0, -1, 1}; // Kolumnändring för samma riktningar
+
+    private final int size;                // Brädets storlek
+    private final MappedByteBuffer buffer; // Den minnesmappade filen, en byte per ställning efter huvudet
+
+    private static final DistanceTable[] LOADED = new DistanceTable[MAX_SIZE + 1]; // Redan inlästa tabeller
+
+    private DistanceTable(int size, MappedByteBuffer buffer) {
+        this.size = size;
+        this.buffer = buffer;
+    }
+
+    // fileFor – filen där tabellen för en viss storlek sparas (i samma mapp som highscore och sparade spel)
+    public static File fileFor(int size) {
+        return new File(Highscore.DIR, "DistanceTable-" + size + ".bin");
+    }
+
+    // forSize – hämtar tabellen för en storlek om filen finns, annars null
+    public static synchronized DistanceTable forSize(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            return null;
+        }
+        if (LOADED[size] == null) {
+            File file = fileFor(size);
+            if (!file.exists()) {
+                return null;
+            }
+            try {
+                LOADED[size] = load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        return LOADED[size];
+    }
+
+    // preload – läser in tabellen för en storlek och hämtar hela filen till minnet, så att första uppslaget
+    // inte behöver vänta på disken. Anropas från en bakgrundstråd när ett litet spel öppnas.
+    public static void preload(int size) {
+        DistanceTable table = forSize(size);
+        if (table != null) {
+            table.buffer.load();
+        }
+    }
+
+    // load – minnesmappar en färdig tabellfil
+    public static DistanceTable load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Inte en avståndstabell: " + file);
+            }
+            int size = buffer.getInt(4);
+            if (size < 2 || size > MAX_SIZE || buffer.capacity() != HEADER + stateCount(size * size)) {
+                throw new IllegalArgumentException("Fel längd på avståndstabellen: " + file);
+            }
+            return new DistanceTable(size, buffer);
+        }
+    }
+
+    // size – brädstorleken som tabellen gäller för
+    public int size() {
+        return this.size;
+    }
+
+    // distance – kortaste antalet drag från brädets ställning till målet
+    public int distance(Board board) {
+        this.check(board);
+        return this.distance(board.toArray());
+    }
+
+    // bestMove – ett drag på en kortaste väg till målet, eller null om brädet redan är löst
+    public Move bestMove(Board board) {
+        this.check(board);
+        int[] values = board.toArray();
+        return this.bestMove(values, board.getEmptyRow(), board.getEmptyCol(), this.distance(values));
+    }
+
+    // solution – en hel kortaste lösning, ett uppslag per drag (brädet ändras inte)
+    public List<Move> solution(Board board) {
+        this.check(board);
+        int[] values = board.toArray();
+        int row = board.getEmptyRow();
+        int col = board.getEmptyCol();
+        int distance = this.distance(values);
+
+        List<Move> solution = new ArrayList<>(distance);
+        for (; distance > 0; --distance) {
+            Move m = this.bestMove(values, row, col, distance);
+            solution.add(m);
+            swap(values, m.fromRow * this.size + m.fromCol, row * this.size + col);
+            row = m.fromRow;
+            col = m.fromCol;
+        }
+        return solution;
+    }
+
+    // bestMove – grannen till den tomma rutan (row, col) vars ställning ligger ett drag närmare målet
+    private Move bestMove(int[] values, int row, int col, int distance) {
+        if (distance == 0) {
+            return null;
+        }
+        int empty = row * this.size + col;
+        for (int dir = 0; dir < 4; ++dir) {
+            int r = row + DR[dir];
+            int c = col + DC[dir];
+            if (r < 0 || r >= this.size || c < 0 || c >= this.size) {
+                continue;
+            }
+            int from = r * this.size + c;
+            swap(values, from, empty);
+            int next = this.distance(values);
+            swap(values, from, empty);
+            if (next == distance - 1) {
+                return new Move(r, c, row, col);
+            }
+        }
+        throw new IllegalStateException("Avståndstabellen är skadad");
+    }
+
+    private int distance(int[] values) {
+        return this.buffer.get(HEADER + index(values)) & 0xFF;
+    }
+
+    private void check(Board board) {
+        if (board.size() != this.size) {
+            throw new IllegalArgumentException("Tabellen gäller " + this.size + "x" + this.size);
+        }
+    }
+
+    // stateCount – antal lösbara ställningar på cells rutor: cells! / 2
+    static int stateCount(int cells) {
+        int count = 1;
+        for (int i = 3; i <= cells; ++i) {
+            count *= i;
+        }
+        return count;
+    }
+
+    // index – ställningens plats i tabellen (se klasskommentaren). Ställningen måste vara lösbar.
+    static int index(int[] values) {
+        int cells = values.length;
+        int empty = 0;
+        int rank = 0;
+        int seen = 0; // Brickor (bit = värde) som redan stått före i läsordningen
+        int left = cells - 1;
+        for (int i = 0; i < cells; ++i) {
+            int value = values[i];
+            if (value == 0) {
+                empty = i;
+                continue;
+            }
+            // Lehmer-siffran: antal mindre brickor som ännu inte använts, i blandad bas (left - 1)!
+            int digit = value - 1 - Integer.bitCount(seen & ((1 << value) - 1));
+            rank = rank * left + digit;
+            --left;
+            seen |= 1 << value;
+        }
+        return empty * (stateCount(cells) / cells) + (rank >>> 1);
+    }
+
+    private static void swap(int[] values, int a, int b) {
+        int t = values[a];
+        values[a] = values[b];
+        values[b] = t;
+    }
+
+    // generate – bredden-först-sökning från målläget över alla lösbara ställningar, skriver tabellen till fil.
+    // Ställningarna ligger i kön packade 4 bitar per ruta, och varje ställning läggs i kön en enda gång.
+    public static void generate(int size, File file) throws IOException {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Avståndstabeller stöds för 2x2 till " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        int cells = size * size;
+        int states = stateCount(cells);
+        byte[] table = new byte[states];
+        Arrays.fill(table, (byte) NONE);
+        long[] queue = new long[states];
+        int head = 0;
+        int tail = 0;
+
+        int[] values = new int[cells];
+        for (int i = 0; i < cells - 1; ++i) {
+            values[i] = i + 1; // Samma mål som Board.initSolved
+        }
+        table[index(values)] = 0;
+        queue[tail++] = pack(values);
+
+        while (head < tail) {
+            unpack(queue[head++], values);
+            int empty = 0;
+            while (values[empty] != 0) {
+                ++empty;
+            }
+            int distance = table[index(values)] & 0xFF;
+            int row = empty / size;
+            int col = empty % size;
+
+            for (int dir = 0; dir < 4; ++dir) {
+                int r = row + DR[dir];
+                int c = col + DC[dir];
+                if (r < 0 || r >= size || c < 0 || c >= size) {
+                    continue;
+                }
+                int from = r * size + c;
+                swap(values, from, empty);
+                int target = index(values);
+                if ((table[target] & 0xFF) == NONE) {
+                    table[target] = (byte) (distance + 1);
+                    queue[tail++] = pack(values);
+                }
+                swap(values, from, empty);
+            }
+        }
+        if (tail != states) {
+            throw new IllegalStateException("Nådde " + tail + " av " + states + " ställningar");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.write(table);
+        }
+    }
+
+    private static long pack(int[] values) {
+        long packed = 0L;
+        for (int i = 0; i < values.length; ++i) {
+            packed |= (long) values[i] << (i << 2);
+        }
+        return packed;
+    }
+
+    private static void unpack(long packed, int[] values) {
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = (int) (packed >>> (i << 2)) & 0xF;
+        }
+    }
+
+    // main – genererar tabellen offline: java DistanceTable <storlek>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Användning: java DistanceTable <storlek (2 eller 3)>");
+            return;
+        }
+
+        int size = Integer.parseInt(args[0]);
+        File file = fileFor(size);
+        long start = System.currentTimeMillis();
+        generate(size, file);
+        System.out.printf("Skrev %s (%d byte) på %d ms%n", file, file.length(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,53 @@
+// Klassen GameClock mäter speltiden med System.nanoTime, som aldrig hoppar när datorns klocka ställs om.
+// Klockan kan pausas och startas igen; tiden under pausen räknas inte.
+public final class GameClock {
+
+    private long startNanos;      // När klockan senast startades eller återupptogs
+    private long elapsedBefore;   // Tid (ns) som gått före senaste start/återupptagning
+    private boolean running;      // true när klockan går
+
+    // start – nollställer och startar klockan
+    public void start() {
+        this.startAt(0L);
+    }
+
+    // startAt – startar klockan som om elapsedNanos redan hade gått (t.ex. för ett sparat spel)
+    public void startAt(long elapsedNanos) {
+        this.elapsedBefore = Math.max(0L, elapsedNanos);
+        this.startNanos = System.nanoTime();
+        this.running = true;
+    }
+
+    // pause – stoppar klockan (tiden hittills sparas)
+    public void pause() {
+        if (this.running) {
+            this.elapsedBefore += System.nanoTime() - this.startNanos;
+            this.running = false;
+        }
+    }
+
+    // resume – startar klockan igen efter en paus
+    public void resume() {
+        if (!this.running) {
+            this.startNanos = System.nanoTime();
+            this.running = true;
+        }
+    }
+
+    // isRunning – true om klockan går
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    // elapsedNanos – tid som gått i nanosekunder
+    public long elapsedNanos() {
+        return this.running
+                ? this.elapsedBefore + (System.nanoTime() - this.startNanos)
+                : this.elapsedBefore;
+    }
+
+    // elapsedMs – tid som gått i millisekunder
+    public long elapsedMs() {
+        return this.elapsedNanos() / 1_000_000L;
+    }
+}
@@ -2,6 +2,7 @@ import java.awt.Component;
 import java.awt.Toolkit;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -13,76 +14,150 @@ import javax.swing.Timer;
 public final class GameController {
 
     private final Board board;       // Själva spelbrädet (logiken)
-    private final BoardPanel panel;  // Panelen som visar spelet på skärmen
+    private final BoardView panel;   // Vyn som visar spelet på skärmen (BoardPanel eller BoardCanvas)
     private final JLabel status;     // Textfält som visar drag och tid
     private final Component parent;  // Fönstret (GameFrame) som äger spelet
 
-    private long startTime = 0L;           // När spelet startade (tid i millisekunder)
-    private long elapsedBeforePause = 0L;  // Tid som gått innan paus (om det finns)
-    private Timer statusTimer;             // Timer som uppdaterar status-texten
+    private final GameClock clock = new GameClock();      // Speltiden (kan pausas)
+    private final Runnable statusTask = this::updateStatus; // Körs av StatusScheduler
+    private long shownSeconds = -1L;       // Sekunden som status-texten visar just nu
+    private int shownMoves = -1;           // Antal drag som status-texten visar just nu
+    private int shownBound = -1;           // Sökgränsen som status-texten visar just nu
+    private Timer solveTimer;              // Timer som spelar upp en automatisk lösning drag för drag
+    private SearchService.Job search;      // Pågående sökning efter en lösning (null om ingen)
+    private int searchBound = -1;          // Senaste gränsen som sökningen rapporterat (-1 = ingen sökning)
+    private int unsaved;                   // Drag, ångra och gör om sedan spelet senast sparades
+
+    private static final HintCache HINTS = Metrics.watch(new HintCache(100_000)); // Uträknade tips, delas av alla spel (räknarna syns i JMX)
+    private static final SearchService SEARCH = new SearchService(); // Kör lösaren utanför Swing-tråden
+
+    private static final long SOLVER_NODE_LIMIT = 50_000_000L; // Max antal noder innan lösaren ger upp
+    private static final int SOLVE_STEP_MS = 200;              // Tid mellan dragen vid automatisk lösning
+    private static final long SOLVE_DEADLINE_MS = 30_000L;     // Max tid för en sökning
 
     // Konstruktorn kopplar ihop spelet med panelen och status-texten
-    public GameController(Board board, BoardPanel panel, JLabel status, Component parent) {
+    public GameController(Board board, BoardView panel, JLabel status, Component parent) {
         this.board = board;
         this.panel = panel;
         this.status = status;
         this.parent = parent;
+
+        // Små bräden tar tipsen ur DistanceTable: den läses in nu så att första tipset inte väntar på disken
+        int size = board.size();
+        if (size <= DistanceTable.MAX_SIZE) {
+            SEARCH.preload(() -> DistanceTable.preload(size));
+        }
     }
 
     // Startar ett nytt spel: blandar brädet, nollställer tid och uppdaterar allt
     public void startNewGame() {
+        this.stopAutoSolve();    // Avbryt en eventuell automatisk lösning
         this.board.initSolved(); // Starta från ett löst bräde
-        this.board.shuffle(5000, new Random()); // Blanda slumpmässigt
+        this.board.shuffleUniform(new Random().nextLong()); // Slumpa fram en lösbar ställning (fröet sparas i brädet)
 
-        this.startTimer(); // Starta tidtagningen
-        this.panel.refresh(); // Rita om spelbrädet
+        this.startTimer(); // Starta tidtagningen (brädet ritar om sig självt via BoardListener)
+        this.unsaved = 0;
         this.updateStatus();  // Uppdatera status-texten
 
-        // Stoppa eventuell gammal timer innan vi skapar en ny
-        if (this.statusTimer != null) {
-            this.statusTimer.stop();
+        // Den gemensamma timern uppdaterar status-texten (läggs bara till en gång)
+        StatusScheduler.add(this.statusTask);
+    }
+
+    // Fortsätter ett sparat spel: brädet, dragen, historiken och tiden blir som när det sparades
+    public void resumeGame(SavedGame saved) {
+        this.stopAutoSolve();
+        saved.restore(this.board);
+        this.clock.startAt(saved.elapsedNanos());
+        this.unsaved = 0;
+        this.updateStatus();
+        StatusScheduler.add(this.statusTask);
+    }
+
+    // Sparar spelet så att det kan fortsätta nästa gång (ett löst spel tas bort istället).
+    // Med wait väntar den tills filen är skriven, annars skrivs den i bakgrunden.
+    public void saveGame(boolean wait) {
+        this.unsaved = 0;
+        if (this.board.isSolved()) {
+            if (wait) {
+                SavedGame.deleteNow();
+            } else {
+                SavedGame.delete(); // Swing-tråden väntar inte på disken
+            }
+            return;
+        }
+
+        byte[] data = SavedGame.encode(this.board, this.clock.elapsedNanos());
+        if (wait) {
+            SavedGame.saveNow(data);
+        } else {
+            SavedGame.saveLater(data);
         }
+    }
 
-        // Skapa en ny timer som uppdaterar status var 0,5 sekund
-        this.statusTimer = new Timer(500, (e) -> this.updateStatus());
-        this.statusTimer.start();
+    // Räknar en ändring av brädet och sparar i bakgrunden var SavedGame.SAVE_EVERY:e gång
+    private void changed() {
+        if (++this.unsaved >= SavedGame.SAVE_EVERY) {
+            this.saveGame(false);
+        }
     }
 
     // Startar tidtagningen från noll
     public void startTimer() {
-        this.startTime = System.currentTimeMillis();
-        this.elapsedBeforePause = 0L;
+        this.clock.start();
     }
 
     // Räknar ut hur lång tid som gått i millisekunder
     public long getElapsedMs() {
-        return this.startTime == 0L
-                ? this.elapsedBeforePause
-                : this.elapsedBeforePause + (System.currentTimeMillis() - this.startTime);
+        return this.clock.elapsedMs();
+    }
+
+    // Pausar tiden (t.ex. när fönstret minimeras)
+    public void pause() {
+        this.clock.pause();
+    }
+
+    // Startar tiden igen efter en paus (inte om spelet redan är löst)
+    public void resume() {
+        if (!this.board.isSolved()) {
+            this.clock.resume();
+        }
+    }
+
+    // Kopplar bort kontrollern när spelet byts ut: stoppar timers och status-uppdateringar
+    public void dispose() {
+        this.stopAutoSolve();
+        this.cancelSearch();
+        this.clock.pause();
+        StatusScheduler.remove(this.statusTask);
     }
 
     // Körs när man klickar på en bricka i spelet
     public void onTileClicked(int row, int col) {
-        // Försök flytta brickan
-        if (this.board.move(row, col)) {
-            this.panel.refresh(); // Rita om efter drag
-            this.updateStatus();  // Uppdatera status
+        long start = Metrics.now();
+
+        // Försök flytta brickan (och brickorna mellan den och tomrutan, om den ligger längre bort i samma rad eller kolumn)
+        if (this.board.slide(row, col)) {
+            this.updateStatus();  // Uppdatera status (panelen har redan ritat om rutorna som ändrades)
 
             // Kolla om spelet är löst
             if (this.board.isSolved()) {
-                if (this.statusTimer != null) {
-                    this.statusTimer.stop(); // Stoppa tiden
-                }
+                this.clock.pause(); // Stoppa tiden
+                this.updateStatus();
+                StatusScheduler.remove(this.statusTask);
+                this.saveGame(false); // Ett löst spel ska inte tas upp igen (filen tas bort)
 
                 long timeMS = this.getElapsedMs(); // Hämta tiden som gått
 
                 // Visa vinstmeddelande (körs säkert i Swing-tråd)
                 SwingUtilities.invokeLater(() -> this.onWin(timeMS));
+            } else {
+                this.changed(); // Sparas i bakgrunden med jämna mellanrum
             }
         } else {
             // Om draget inte är tillåtet – spela ett pip
             Toolkit.getDefaultToolkit().beep();
         }
+        Metrics.MOVE.record(start);
     }
 
     // Körs när man vinner spelet
@@ -103,7 +178,8 @@ public final class GameController {
 
         // Om spelaren skrev in ett namn, spara resultatet
         if (namn != null && !namn.trim().isEmpty()) {
-            Highscore.addEntry(new Highscore.Entry(namn.trim(), this.board.getMoves(), timeMs));
+            Highscore.addEntry(new Highscore.Entry(namn.trim(), this.board.getMoves(), timeMs,
+                    this.board.size(), System.currentTimeMillis()));
         }
 
         // Visa highscore-listan
@@ -123,33 +199,47 @@ public final class GameController {
         }
     }
 
-    // Visar highscore-listan i en dialogruta
+    // Visar highscore-listan för den aktuella brädstorleken i en dialogruta.
+    // Äldre resultat som sparades utan brädstorlek visas i en egen lista under den.
     public void showHighscores() {
-        List<Highscore.Entry> list = Highscore.load(); // Läs in från fil
+        List<Highscore.Entry> list = Highscore.top(this.board.size(), 10); // Läs bara den här storlekens topplista
+        List<Highscore.Entry> unknown = Highscore.top(Leaderboard.UNKNOWN_SIZE, 10);
+        String title = "Highscore " + this.board.size() + "x" + this.board.size();
 
-        if (list.isEmpty()) {
+        if (list.isEmpty() && unknown.isEmpty()) {
             // Om det inte finns några resultat än
-            JOptionPane.showMessageDialog(this.parent, "Inga highscore ännu.", "Highscore", JOptionPane.INFORMATION_MESSAGE);
+            JOptionPane.showMessageDialog(this.parent, "Inga highscore ännu.", title, JOptionPane.INFORMATION_MESSAGE);
         } else {
-            // Bygg upp en text med topplistan
+            // Bygg upp en text med topplistan (max 10 per lista)
             StringBuilder sb = new StringBuilder();
-            int i = 1;
-
-            for (Highscore.Entry entry : list) {
-                sb.append(i++).append(". ").append(entry.toString()).append("\n");
-                if (i > 10) break; // Visa max 10
+            appendList(sb, list);
+            if (list.isEmpty()) {
+                sb.append("Inga resultat för ").append(this.board.size()).append("x").append(this.board.size()).append(" ännu.\n");
+            }
+            if (!unknown.isEmpty()) {
+                sb.append("\nOkänd storlek (äldre resultat):\n");
+                appendList(sb, unknown);
             }
 
             // Visa i en meddelanderuta
-            JOptionPane.showMessageDialog(this.parent, sb.toString(), "Highscore", JOptionPane.INFORMATION_MESSAGE);
+            JOptionPane.showMessageDialog(this.parent, sb.toString(), title, JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // Lägger till en numrerad rad per resultat
+    private static void appendList(StringBuilder sb, List<Highscore.Entry> list) {
+        int i = 1;
+        for (Highscore.Entry entry : list) {
+            sb.append(i++).append(". ").append(entry.toString()).append("\n");
         }
     }
 
     // Ångrar senaste draget (om möjligt)
     public void undo() {
+        this.stopAutoSolve();
         if (this.board.undo()) {
-            this.panel.refresh();
             this.updateStatus();
+            this.changed();
         } else {
             Toolkit.getDefaultToolkit().beep(); // Om inget att ångra
         }
@@ -157,17 +247,131 @@ public final class GameController {
 
     // Gör om ett ångrat drag (om möjligt)
     public void redo() {
+        this.stopAutoSolve();
         if (this.board.redo()) {
-            this.panel.refresh();
             this.updateStatus();
+            this.changed();
         } else {
             Toolkit.getDefaultToolkit().beep(); // Om inget att göra om
         }
     }
 
-    // Uppdaterar texten som visar drag och tid
+    // Visar ett tips: markerar brickan som ska flyttas härnäst på kortaste vägen
+    public void hint() {
+        this.withSolution((solution) -> {
+            if (solution.isEmpty()) {
+                Toolkit.getDefaultToolkit().beep(); // Redan löst
+                return;
+            }
+
+            Move next = solution.get(0);
+            this.panel.highlight(next.fromRow, next.fromCol);
+        });
+    }
+
+    // Löser spelet automatiskt genom att spela upp en kortaste lösning ett drag i taget
+    public void autoSolve() {
+        this.stopAutoSolve();
+
+        this.withSolution((solution) -> {
+            if (solution.isEmpty()) {
+                return;
+            }
+
+            int[] step = {0}; // Nästa drag som ska spelas upp
+            this.solveTimer = new Timer(SOLVE_STEP_MS, (e) -> {
+                Move m = solution.get(step[0]++);
+
+                // Om brädet har ändrats under tiden stämmer inte lösningen längre
+                if (!this.board.canMove(m.fromRow, m.fromCol)) {
+                    this.stopAutoSolve();
+                    return;
+                }
+                if (step[0] >= solution.size()) {
+                    this.stopAutoSolve(); // Sista draget
+                }
+                this.onTileClicked(m.fromRow, m.fromCol);
+            });
+            this.solveTimer.start();
+        });
+    }
+
+    // Stoppar en pågående automatisk lösning
+    private void stopAutoSolve() {
+        if (this.solveTimer != null) {
+            this.solveTimer.stop();
+            this.solveTimer = null;
+        }
+    }
+
+    // Avbryter en pågående sökning
+    private void cancelSearch() {
+        if (this.search != null) {
+            this.search.cancel();
+            this.search = null;
+        }
+        this.searchBound = -1;
+    }
+
+    // Ger action en kortaste lösning. Tabeller och HINTS svarar direkt; annars söker lösaren i bakgrunden
+    // och action körs när den är klar. Sökningen avbryts om brädet ändras innan dess.
+    private void withSolution(Consumer<List<Move>> action) {
+        if (this.board.size() > Solver.MAX_SIZE) {
+            JOptionPane.showMessageDialog(this.parent, "Brädet är för stort för lösaren.", "Lösare", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        // Små bräden har en färdig tabell med kortaste avståndet för varje ställning
+        DistanceTable table = DistanceTable.forSize(this.board.size());
+        if (table != null) {
+            action.accept(table.solution(this.board));
+            return;
+        }
+
+        List<Move> cached = HINTS.getSolution(this.board);
+        if (cached != null) {
+            action.accept(cached);
+            return;
+        }
+
+        this.cancelSearch(); // Bara en sökning i taget
+        this.searchBound = 0;
+        this.updateStatus();
+        this.search = SEARCH.solve(this.board, SOLVE_DEADLINE_MS, SOLVER_NODE_LIMIT, (bound) -> {
+            this.searchBound = bound;
+            this.updateStatus();
+        }, (solution) -> {
+            this.search = null;
+            this.searchBound = -1;
+            this.updateStatus();
+            if (solution == null) {
+                JOptionPane.showMessageDialog(this.parent, "Kunde inte hitta en lösning i tid.", "Lösare", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            HINTS.putSolution(this.board, solution);
+            action.accept(solution);
+        });
+    }
+
+    // Uppdaterar texten som visar drag och tid – bara om visad sekund eller antal drag har ändrats
     public void updateStatus() {
-        String t = String.format("Drag: %d      Tid:%ds", this.board.getMoves(), this.getElapsedMs() / 1000L);
+        if (this.search != null && this.search.isCancelled()) {
+            this.search = null;     // Brädet ändrades under sökningen
+            this.searchBound = -1;
+        }
+        long seconds = this.getElapsedMs() / 1000L;
+        int moves = this.board.getMoves();
+        if (seconds == this.shownSeconds && moves == this.shownMoves && this.searchBound == this.shownBound) {
+            return; // Samma text som redan visas
+        }
+        this.shownSeconds = seconds;
+        this.shownMoves = moves;
+        this.shownBound = this.searchBound;
+
+        String t = String.format("Drag: %d      Tid:%ds", moves, seconds);
+        if (this.searchBound >= 0) {
+            t += String.format("      Söker lösning (minst %d drag)...", this.searchBound);
+        }
         this.status.setText(t);
     }
 }
@@ -0,0 +1,94 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+// Klassen GameEngine spelar 15-spelet utan grafik: ett blandat bräde och en MovePolicy som väljer dragen.
+// Stora mängder spel fördelas på alla kärnor med en ForkJoinPool. Varje spel får fröet firstSeed + nummer,
+// så samma körning ger samma resultat oavsett antal trådar.
+public final class GameEngine {
+
+    private static final int BATCHES_PER_THREAD = 16;   // Ungefär så många delar per tråd ger jämn fördelning
+    private static final long POLICY_SALT = 0x9E3779B97F4A7C15L; // Så strategins slump inte följer blandningens
+
+    // Hur raden och kolumnen för den tomma rutan ändras för varje riktning (som i Board)
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
+
+    private final int size;                      // Brädets storlek
+    private final Supplier<MovePolicy> policies; // Skapar en strategi per del (varje tråd har sin egen)
+    private final int maxMoves;                  // Ett spel som inte är löst efter så många drag räknas som olöst
+    private final int threads;                   // Antal trådar
+
+    // Skapar en motor för en brädstorlek och en strategi
+    public GameEngine(int size, Supplier<MovePolicy> policies, int maxMoves, int threads) {
+        this.size = size;
+        this.policies = policies;
+        this.maxMoves = maxMoves;
+        this.threads = Math.max(1, threads);
+    }
+
+    // play – blandar brädet med fröet och låter strategin spela tills brädet är löst.
+    // Returnerar antal drag, eller -1 om strategin gav upp, gjorde ett ogiltigt drag eller nådde maxMoves.
+    public static int play(Board board, MovePolicy policy, long seed, int maxMoves) {
+        board.shuffleUniform(seed);
+        policy.reset(board, seed ^ POLICY_SALT);
+
+        while (!board.isSolved()) {
+            if (board.getMoves() >= maxMoves) {
+                return -1;
+            }
+            int dir = policy.next(board);
+            if (dir < 0 || !board.move(board.getEmptyRow() + DR[dir], board.getEmptyCol() + DC[dir])) {
+                return -1;
+            }
+        }
+        return board.getMoves();
+    }
+
+    // run – spelar games spel (frön firstSeed, firstSeed + 1, ...) på alla trådar och samlar statistiken
+    public MoveStats run(long games, long firstSeed) {
+        long batch = Math.max(1L, games / ((long) this.threads * BATCHES_PER_THREAD));
+        ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            return pool.invoke(new BatchTask(firstSeed, firstSeed + games, batch));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // BatchTask – delar frö-intervallet i halvor tills det är högst en batch, som spelas på ett eget bräde
+    private final class BatchTask extends RecursiveTask<MoveStats> {
+
+        private final long from;
+        private final long to;
+        private final long batch;
+
+        BatchTask(long from, long to, long batch) {
+            this.from = from;
+            this.to = to;
+            this.batch = batch;
+        }
+
+        @Override
+        protected MoveStats compute() {
+            if (this.to - this.from > this.batch) {
+                long mid = this.from + (this.to - this.from) / 2;
+                BatchTask left = new BatchTask(this.from, mid, this.batch);
+                left.fork();
+                MoveStats stats = new BatchTask(mid, this.to, this.batch).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+
+            Board board = new Board(size);
+            board.setHistoryLimit(1L); // Motorn ångrar aldrig något, så historiken hålls så liten som möjligt
+            MovePolicy policy = policies.get();
+            MoveStats stats = new MoveStats();
+            for (long seed = this.from; seed < this.to; ++seed) {
+                int moves = play(board, policy, seed, maxMoves);
+                stats.add(moves < 0 ? board.getMoves() : moves, moves >= 0);
+            }
+            return stats;
+        }
+    }
+}
@@ -3,6 +3,8 @@ import java.awt.CardLayout;
 import java.awt.Component;
 import java.awt.Font;
 import java.awt.Image;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.net.URL;
 import javax.swing.*;
 
@@ -22,8 +24,11 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
     // Själva spelbrädet (logiken)
     private Board board;
 
-    // Panelen som ritar ut spelbrädet
-    private BoardPanel boardPanel;
+    // Panelen som ritar ut spelbrädet (BoardPanel eller BoardCanvas)
+    private BoardView boardPanel;
+
+    // Största storlek som visas med en knapp per ruta (större bräden ritas av BoardCanvas)
+    private static final int BUTTON_GRID_MAX = 8;
 
     // Kontrollen som hanterar logiken (drag, ångra, tid osv.)
     private GameController controller;
@@ -31,6 +36,9 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
     // Textfält som visar drag och tid
     private final JLabel statusLabel;
 
+    // Spelar in alla spel till arkivfilen (Replays.bin)
+    private final ReplayRecorder recorder = new ReplayRecorder(ReplayArchive.FILE);
+
     // Konstruktor – skapar fönstret och startmenyn
     public GameFrame() {
         super("15-spelet"); // Sätter fönstrets titel
@@ -44,6 +52,31 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
         // Stänger programmet när man klickar på stäng-knappen
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
+        // Sparar det pågående spelet i arkivet när programmet avslutas
+        Runtime.getRuntime().addShutdownHook(new Thread(this.recorder::close));
+
+        // Pausar tiden medan fönstret är minimerat, och sparar spelet när fönstret stängs
+        this.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                GameFrame.this.saveGame();
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                if (GameFrame.this.controller != null) {
+                    GameFrame.this.controller.pause();
+                }
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                if (GameFrame.this.controller != null) {
+                    GameFrame.this.controller.resume();
+                }
+            }
+        });
+
         // Skapar startskärmen
         StartPanel start = new StartPanel((e) -> this.showSizeDialogAndStart());
         start.setLayout(new BorderLayout());
@@ -72,7 +105,7 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
         start.add(imgLabel, BorderLayout.CENTER);
 
         // Skapar en text högst upp med instruktion
-        JLabel info = new JLabel("Tryck på 'Starta spelet' för att börja och välj sedan storlek (2-8).", SwingConstants.CENTER);
+        JLabel info = new JLabel("Tryck på 'Starta spelet' för att börja och välj sedan storlek (2-" + Board.MAX_SIZE + ").", SwingConstants.CENTER);
         info.setFont(new Font("SansSerif", Font.PLAIN, 14)); // Gör texten snyggare
         start.add(info, BorderLayout.NORTH);
 
@@ -105,10 +138,24 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
 
         // Gör fönstret synligt
         this.setVisible(true);
+
+        // Fortsätter förra spelet direkt om det sparades när programmet stängdes
+        SavedGame saved = SavedGame.loadIfExists();
+        if (saved != null) {
+            this.openGame(saved.size());
+            try {
+                this.controller.resumeGame(saved);
+            } catch (IllegalArgumentException e) {
+                // Filen gick att läsa men innehållet var fel: börja ett nytt spel istället
+                e.printStackTrace();
+                this.controller.startNewGame();
+            }
+        }
     }
 
     // Huvudmetoden – programmet startar här
-    static void main(String[] args) {
+    public static void main(String[] args) {
+        Metrics.install(); // JMX-bönan och vakten för Swing-tråden
         SwingUtilities.invokeLater(() -> new GameFrame()); // Skapar fönstret
     }
 
@@ -117,7 +164,7 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
         // Frågar användaren vilken storlek spelet ska ha
         String input = JOptionPane.showInputDialog(
                 this,
-                "Välj storlek (2-8)\nSkriv t.ex. 3 för 3x3:",
+                "Välj storlek (2-" + Board.MAX_SIZE + ")\nSkriv t.ex. 3 för 3x3:",
                 "Välj storlek för spelet",
                 JOptionPane.QUESTION_MESSAGE
         );
@@ -134,102 +181,138 @@ public final class GameFrame extends JFrame {  // final betyder att den inte kan
                 return;
             }
 
-            // Om talet är mellan 2 och 8 – godkänt
-            if (size >= 2 && size <= 8) {
-
-                // Skapar ett nytt bräde
-                this.board = new Board(size);
-
-                // Skapar panelen som ritar brädet
-                this.boardPanel = new BoardPanel(this.board);
-
-                // Skapar spelkontrollen (logik)
-                this.controller = new GameController(this.board, this.boardPanel, this.statusLabel, this);
-
-                // Kopplar kontrollern till panelen
-                this.boardPanel.setController(this.controller);
-
-                // Skapar menyraden
-                JMenuBar menyBar = new JMenuBar();
-                JMenu gameMeny = new JMenu("Spelet");
-
-                // Skapar menyval
-                JMenuItem newItem = new JMenuItem("Nytt spel");
-                JMenuItem undoItem = new JMenuItem("Ångra");
-                JMenuItem redoItem = new JMenuItem("Gör om");
-                JMenuItem hsItem = new JMenuItem("Highscore");
-                JMenuItem exitItem = new JMenuItem("Avsluta");
-
-                // Kopplar menyvalen till funktioner
-                newItem.addActionListener((a) -> this.controller.startNewGame());
-                undoItem.addActionListener((a) -> this.controller.undo());
-                redoItem.addActionListener((a) -> this.controller.redo());
-                hsItem.addActionListener((a) -> this.controller.showHighscores());
-                exitItem.addActionListener((a) -> System.exit(0));
+            // Om talet är mellan 2 och största storleken – godkänt
+            if (size >= 2 && size <= Board.MAX_SIZE) {
+                this.openGame(size);
 
-                // Lägger till valen i menyn
-                gameMeny.add(newItem);
-                gameMeny.addSeparator();
-                gameMeny.add(undoItem);
-                gameMeny.add(redoItem);
-                gameMeny.addSeparator();
-                gameMeny.add(hsItem);
-                gameMeny.addSeparator();
-                gameMeny.add(exitItem);
-                menyBar.add(gameMeny);
-
-                // Lägger menyn i fönstret
-                this.setJMenuBar(menyBar);
-
-                // Skapar knappar under spelbrädet
-                JButton newGameButton = new JButton("Nytt spel");
-                newGameButton.addActionListener((a) -> this.controller.startNewGame());
-
-                JButton undoButton = new JButton("Ångra");
-                undoButton.addActionListener((a) -> this.controller.undo());
-
-                JButton redoButton = new JButton("Gör om");
-                redoButton.addActionListener((a) -> this.controller.redo());
-
-                // Skapar panel för knappar och status
-                JPanel south = new JPanel(new BorderLayout());
-                JPanel buttonPanel = new JPanel();
-
-                buttonPanel.add(newGameButton);
-                buttonPanel.add(undoButton);
-                buttonPanel.add(redoButton);
-
-                // Status till vänster, knappar till höger
-                south.add(buttonPanel, BorderLayout.EAST);
-                south.add(this.statusLabel, BorderLayout.WEST);
+                // Startar spelet
+                this.controller.startNewGame(); // Uppdaterar även status-texten via StatusScheduler
 
-                // Rensar tidigare innehåll och lägger till nya paneler
-                this.gameWrapper.removeAll();
-                this.gameWrapper.add(this.boardPanel, BorderLayout.CENTER);
-                this.gameWrapper.add(south, BorderLayout.SOUTH);
+            } else {
+                // Om talet inte är mellan 2 och största storleken – felmeddelande
+                JOptionPane.showMessageDialog(this, "Storleken måste vara mellan 2 och " + Board.MAX_SIZE + ".", "Fel", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 
-                // Uppdaterar layouten
-                this.cardPanel.revalidate();
-                this.cardPanel.repaint();
+    // Skapar brädet, vyn, kontrollern, menyn och knapparna för en storlek och visar spelvyn
+    // (själva spelet startas sedan med startNewGame eller resumeGame)
+    private void openGame(int size) {
+        // Skapar ett nytt bräde och börjar spela in det
+        this.board = new Board(size);
+        this.recorder.attach(this.board);
 
-                // Visar själva spelvyn
-                this.cards.show(this.cardPanel, "Game");
+        // Skapar panelen som ritar brädet
+        this.boardPanel = createBoardView(this.board);
 
-                // Startar spelet
-                this.controller.startNewGame();
-                this.boardPanel.refresh();
-                this.controller.updateStatus();
+        // Kopplar bort förra spelets kontroll (dess status-uppdateringar och timers)
+        if (this.controller != null) {
+            this.controller.dispose();
+        }
 
-                // Timer som uppdaterar tiden var 0,5 sekund
-                new Timer(500, (evt) -> this.controller.updateStatus()).start();
+        // Skapar spelkontrollen (logik)
+        this.controller = new GameController(this.board, this.boardPanel, this.statusLabel, this);
+
+        // Kopplar kontrollern till panelen
+        this.boardPanel.setController(this.controller);
+
+        // Skapar menyraden
+        JMenuBar menyBar = new JMenuBar();
+        JMenu gameMeny = new JMenu("Spelet");
+
+        // Skapar menyval
+        JMenuItem newItem = new JMenuItem("Nytt spel");
+        JMenuItem undoItem = new JMenuItem("Ångra");
+        JMenuItem redoItem = new JMenuItem("Gör om");
+        JMenuItem hintItem = new JMenuItem("Tips");
+        JMenuItem solveItem = new JMenuItem("Lös automatiskt");
+        JMenuItem hsItem = new JMenuItem("Highscore");
+        JMenuItem exitItem = new JMenuItem("Avsluta");
+
+        // Kopplar menyvalen till funktioner
+        newItem.addActionListener((a) -> this.controller.startNewGame());
+        undoItem.addActionListener((a) -> this.controller.undo());
+        redoItem.addActionListener((a) -> this.controller.redo());
+        hintItem.addActionListener((a) -> this.controller.hint());
+        solveItem.addActionListener((a) -> this.controller.autoSolve());
+        hsItem.addActionListener((a) -> this.controller.showHighscores());
+        exitItem.addActionListener((a) -> {
+            this.saveGame();
+            System.exit(0);
+        });
+
+        // Lägger till valen i menyn
+        gameMeny.add(newItem);
+        gameMeny.addSeparator();
+        gameMeny.add(undoItem);
+        gameMeny.add(redoItem);
+        gameMeny.addSeparator();
+        gameMeny.add(hintItem);
+        gameMeny.add(solveItem);
+        gameMeny.addSeparator();
+        gameMeny.add(hsItem);
+        gameMeny.addSeparator();
+        gameMeny.add(exitItem);
+        menyBar.add(gameMeny);
+
+        // Lägger menyn i fönstret
+        this.setJMenuBar(menyBar);
+
+        // Skapar knappar under spelbrädet
+        JButton newGameButton = new JButton("Nytt spel");
+        newGameButton.addActionListener((a) -> this.controller.startNewGame());
+
+        JButton undoButton = new JButton("Ångra");
+        undoButton.addActionListener((a) -> this.controller.undo());
+
+        JButton redoButton = new JButton("Gör om");
+        redoButton.addActionListener((a) -> this.controller.redo());
+
+        JButton hintButton = new JButton("Tips");
+        hintButton.addActionListener((a) -> this.controller.hint());
+
+        // Skapar panel för knappar och status
+        JPanel south = new JPanel(new BorderLayout());
+        JPanel buttonPanel = new JPanel();
+
+        buttonPanel.add(newGameButton);
+        buttonPanel.add(undoButton);
+        buttonPanel.add(redoButton);
+        buttonPanel.add(hintButton);
+
+        // Status till vänster, knappar till höger
+        south.add(buttonPanel, BorderLayout.EAST);
+        south.add(this.statusLabel, BorderLayout.WEST);
+
+        // Rensar tidigare innehåll och lägger till nya paneler
+        this.gameWrapper.removeAll();
+        this.gameWrapper.add((Component) this.boardPanel, BorderLayout.CENTER);
+        this.gameWrapper.add(south, BorderLayout.SOUTH);
+
+        // Uppdaterar layouten
+        this.cardPanel.revalidate();
+        this.cardPanel.repaint();
+
+        // Visar själva spelvyn
+        this.cards.show(this.cardPanel, "Game");
+    }
 
-            } else {
-                // Om talet inte är mellan 2 och 8 – felmeddelande
-                JOptionPane.showMessageDialog(this, "Storleken måste vara mellan 2 och 8.", "Fel", JOptionPane.ERROR_MESSAGE);
-            }
+    // Sparar det pågående spelet och väntar tills det ligger på disk (när programmet avslutas)
+    private void saveGame() {
+        if (this.controller != null) {
+            this.controller.saveGame(true);
         }
     }
 
+    // Väljer vy: en knapp per ruta för små bräden, BoardCanvas för stora.
+    // Systemegenskapen board.renderer (buttons eller canvas) väljer vy oavsett storlek.
+    private static BoardView createBoardView(Board board) {
+        String renderer = System.getProperty("board.renderer", "");
+        boolean canvas = renderer.equals("canvas")
+                || (!renderer.equals("buttons") && board.size() > BUTTON_GRID_MAX);
+        return canvas ? new BoardCanvas(board) : new BoardPanel(board);
+    }
+
     // Går tillbaka till startskärmen
     public void backToStart() {
         this.cards.show(this.cardPanel, "Start");
@@ -0,0 +1,56 @@
+import java.util.SplittableRandom;
+
+// Klassen GreedyPolicy väljer draget som minskar Manhattan-avståndet mest (brickan som flyttas
+// kommer närmast sin rätta plats). Lika bra drag väljs slumpmässigt, och den går aldrig direkt tillbaka,
+// annars fastnar den lätt i samma två drag.
+public final class GreedyPolicy implements MovePolicy {
+
+    // Hur raden och kolumnen för den tomma rutan ändras för varje riktning (som i Board)
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
+
+    private SplittableRandom random;
+    private int previous = -1; // Förra riktningen (-1 före första draget)
+
+    @Override
+    public void reset(Board board, long seed) {
+        this.random = new SplittableRandom(seed);
+        this.previous = -1;
+    }
+
+    @Override
+    public int next(Board board) {
+        int n = board.size();
+        int emptyRow = board.getEmptyRow();
+        int emptyCol = board.getEmptyCol();
+
+        int best = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int dir = 0; dir < 4; ++dir) {
+            int row = emptyRow + DR[dir];
+            int col = emptyCol + DC[dir];
+            if (row < 0 || row >= n || col < 0 || col >= n || dir == MoveHistory.opposite(this.previous)) {
+                continue;
+            }
+
+            // Brickan på (row, col) glider in på den tomma rutan: hur mycket ändras dess avstånd till målet?
+            int goal = board.get(row, col).value() - 1;
+            int goalRow = goal / n;
+            int goalCol = goal % n;
+            int delta = Math.abs(goalRow - emptyRow) + Math.abs(goalCol - emptyCol)
+                    - Math.abs(goalRow - row) - Math.abs(goalCol - col);
+
+            if (delta < bestDelta) {
+                best = dir;
+                bestDelta = delta;
+                ties = 1;
+            } else if (delta == bestDelta && this.random.nextInt(++ties) == 0) {
+                best = dir; // Väljer jämnt bland lika bra drag
+            }
+        }
+
+        this.previous = best;
+        return best;
+    }
+}
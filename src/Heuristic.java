@@ -0,0 +1,28 @@
+// Gränssnittet Heuristic uppskattar hur många drag som minst återstår till målläget.
+// En Heuristic har ett eget tillstånd som följer med sökningen och uppdateras drag för drag,
+// så att sökningen aldrig behöver räkna om hela brädet eller skapa nya objekt.
+// Uppskattningen får aldrig vara för hög (annars blir lösningen inte optimal)
+// och ska vara 0 endast när brädet är löst.
+public interface Heuristic {
+
+    // Räknar ut värdet från grunden (tiles[index] = bricka, index = rad * storlek + kolumn, 0 = tom)
+    int reset(byte[] tiles);
+
+    // Uppdaterar efter att brickan tile flyttats från ruta from till ruta to och returnerar det nya värdet.
+    // tiles är redan uppdaterad när metoden anropas.
+    int apply(byte[] tiles, int tile, int from, int to);
+
+    // forSize – den starkaste heuristiken som finns för storleken: mönsterdatabasen om den har genererats,
+    // annars walking distance (upp till WalkingDistance.MAX_SIZE), annars Manhattan med linjära konflikter
+    static Heuristic forSize(int size) {
+        PatternDatabase database = PatternDatabase.forSize(size);
+        if (database != null) {
+            return database.newHeuristic();
+        }
+        WalkingDistance walking = WalkingDistance.forSize(size);
+        if (walking != null) {
+            return walking.newHeuristic();
+        }
+        return new ManhattanHeuristic(size);
+    }
+}
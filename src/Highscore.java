@@ -1,101 +1,83 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-// Klassen Highscore hanterar att läsa och skriva highscore-listan i en textfil
+// Klassen Highscore är spelets topplista. Alla resultat sparas i en Leaderboard i DIR (Highscore.dat med ett
+// litet index per brädstorlek), och det är det enda stället där resultat sparas.
+// Äldre versioner sparade resultaten i textfilen Highscore.txt. Första gången topplistan används läses den in
+// (se Leaderboard.importText): rader utan storlek hamnar i en egen lista för okänd storlek.
 public class Highscore {
 
-    // Filen där highscores sparas
-    private static final File FILE = new File("Highscore.txt");
+    // Mappen där highscore-filerna sparas (arbetsmappen, kan ändras med -Dhighscore.dir=...)
+    static final File DIR = new File(System.getProperty("highscore.dir", "."));
 
-    // Max antal resultat som ska sparas (t.ex. topp 10)
+    // Den gamla textfilen med resultat (läses in en gång och döps sedan om)
+    private static final File LEGACY_FILE = new File(DIR, "Highscore.txt");
+
+    // Max antal resultat i listan som load returnerar (t.ex. topp 10)
     private static final int MAX = 10;
 
-    // Läser in highscores från filen och returnerar en lista med Entry-objekt
-    public static List<Entry> load() {
-        List<Entry> list = new ArrayList<>(); // Lista som byggs upp
-
-        // Om filen inte finns, returnera tom lista direkt
-        if (!FILE.exists()) {
-            return list;
-        } else {
-            String line;
-
-            // Läs filen rad för rad
-            try (BufferedReader br = new BufferedReader(new FileReader(FILE))) {
-                while ((line = br.readLine()) != null) {
-                    // Dela raden på semikolon: "Namn;drag;tid"
-                    String[] parts = line.split(";");
-
-                    // Om raden har minst 3 delar, tolka dem
-                    if (parts.length >= 3) {
-                        String name = parts[0]; // Namn
-                        int moves = Integer.parseInt(parts[1]); // Antal drag
-                        long time = Long.parseLong(parts[2]); // Tid i ms
-
-                        // Lägg till en ny Entry i listan
-                        list.add(new Entry(name, moves, time));
-                    }
-                }
-            } catch (NumberFormatException | IOException var10) {
-                // Om något går fel (t.ex. trasigt innehåll) så ignorerar vi raden/felet här
-                // (kan förbättras genom att logga eller visa fel)
-            }
+    // Topplistan (null tills den används första gången)
+    private static Leaderboard leaderboard;
 
-            // Sortera listan så bästa resultat kommer först
-            Collections.sort(list);
-            return list; // Returnera sorterad lista
-        }
+    // Läser de bästa resultaten oavsett brädstorlek, bäst först
+    public static synchronized List<Entry> load() {
+        long start = Metrics.now();
+        List<Entry> list = leaderboard().best(MAX);
+        Metrics.HIGHSCORE_LOAD.record(start);
+        return list;
     }
 
-    // Sparar en lista med Entry till fil, bara topp MAX objekt sparas
-    public static void save(List<Entry> list) {
-        // Sortera först så att bäst kommer först
-        Collections.sort(list);
+    // Ersätter alla sparade resultat med en lista, bara topp MAX objekt sparas
+    public static synchronized void save(List<Entry> list) {
+        long start = Metrics.now();
+        Collections.sort(list); // Sortera först så att bäst kommer först
+        leaderboard().replace(list.subList(0, Math.min(MAX, list.size())));
+        Metrics.HIGHSCORE_SAVE.record(start);
+    }
 
-        // Skriv ut till fil
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE))) {
+    // Lägger till en ny entry (en post sist i datafilen och indexet för dess storlek uppdateras)
+    public static synchronized void addEntry(Entry entry) {
+        leaderboard().add(entry);
+    }
 
-            // Bestäm hur många vi ska skriva (högst MAX)
-            int limit = Math.min(MAX, list.size());
+    // top – de (högst n) bästa resultaten för en brädstorlek, eller för Leaderboard.UNKNOWN_SIZE
+    public static synchronized List<Entry> top(int size, int n) {
+        return leaderboard().top(size, n);
+    }
 
-            // Skriv varje entry som "name;moves;timeMs"
-            for (int i = 0; i < limit; ++i) {
-                Entry entry = list.get(i);
-                bw.write(entry.name + ";" + entry.moves + ";" + entry.timeMs);
-                bw.newLine(); // Nya raden i filen
+    // leaderboard – skapar topplistan första gången och läser in den gamla textfilen om den finns kvar
+    private static Leaderboard leaderboard() {
+        if (leaderboard == null) {
+            leaderboard = new Leaderboard(DIR);
+            if (LEGACY_FILE.exists()) {
+                leaderboard.importText(LEGACY_FILE);
             }
-        } catch (IOException e) {
-            // Om skrivningen misslyckas: skriv stacktrace till konsolen
-            e.printStackTrace();
         }
+        return leaderboard;
     }
 
-    // Lägger till en ny entry i filen (läser in befintliga, lägger till och sparar)
-    public static void addEntry(Entry entry) {
-        List<Entry> list = load(); // Läs befintliga highscores
-        list.add(entry);           // Lägg till nya
-        save(list);                // Spara tillbaka till fil
-    }
-
-    // Entry representerar ett highscore-resultat (namn, drag, tid)
+    // Entry representerar ett highscore-resultat (namn, drag, tid, brädstorlek, när det spelades)
     public static final class Entry implements Comparable<Entry> {
 
         public final String name;   // Spelarens namn
         public final int moves;     // Antal drag
         public final long timeMs;   // Tid i millisekunder
+        public final int size;      // Brädets storlek (t.ex. 4 för 4x4), 0 om okänd
+        public final long timestamp; // När resultatet sparades (millisekunder sedan 1970), 0 om okänt
 
-        // Skapar en ny Entry
+        // Skapar en ny Entry utan storlek och tidpunkt (äldre resultat)
         public Entry(String name, int moves, long timeMs) {
+            this(name, moves, timeMs, 0, 0L);
+        }
+
+        // Skapar en ny Entry
+        public Entry(String name, int moves, long timeMs, int size, long timestamp) {
             this.name = name;
             this.moves = moves;
             this.timeMs = timeMs;
+            this.size = size;
+            this.timestamp = timestamp;
         }
 
         // Jämför två Entry för sortering: först moves, om lika -> timeMs
@@ -110,9 +92,10 @@ public class Highscore {
         @Override
         public String toString() {
             double seconds = (double) this.timeMs / 1000.0;
+            String game = this.size > 0 ? this.size + "x" + this.size + "-spelet" : "spelet";
             return String.format(
-                    "%s löste spelet på %d drag och %d millisekunder (≈ %.1f sekunder)",
-                    this.name, this.moves, this.timeMs, seconds
+                    "%s löste %s på %d drag och %d millisekunder (≈ %.1f sekunder)",
+                    this.name, game, this.moves, this.timeMs, seconds
             );
         }
     }
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Klassen HintCache sparar uträknade tips: för en ställning (brädets Zobrist-hash) det bästa nästa draget
+// och hur många drag som återstår. Cachen har ett tak och slänger den ställning som använts längst sedan (LRU).
+// När en hel lösning sparas får varje ställning längs vägen ett eget tips, så nästa tips (eller ångra/gör om
+// fram och tillbaka) hittas direkt utan en ny sökning. Varje tips vet också hashen för ställningen efter
+// draget, så en hel lösning kan följas i cachen utan att spela dragen på ett bräde.
+public final class HintCache {
+
+    // Hint – ett tips: draget som ska göras (null om ställningen redan är löst), antal drag kvar och
+    // hashen för ställningen efter draget (0 om den inte är känd)
+    public static final class Hint {
+
+        public final Move move;      // Brickan som ska flyttas (fromRow, fromCol) till den tomma rutan
+        public final int distance;   // Antal drag som återstår på den kortaste vägen
+        public final long next;      // Zobrist-hashen efter draget, eller 0
+
+        public Hint(Move move, int distance) {
+            this(move, distance, 0L);
+        }
+
+        public Hint(Move move, int distance, long next) {
+            this.move = move;
+            this.distance = distance;
+            this.next = next;
+        }
+    }
+
+    private final Map<Long, Hint> hints; // I ordning efter senaste användning, äldst först
+
+    private long hits;       // Antal get som hittade ett tips
+    private long misses;     // Antal get som inte hittade något
+    private long evictions;  // Antal tips som slängts för att cachen var full
+
+    // Skapar en cache som rymmer högst capacity ställningar
+    public HintCache(int capacity) {
+        this.hints = new LinkedHashMap<Long, Hint>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Hint> eldest) {
+                if (this.size() > capacity) {
+                    ++HintCache.this.evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // get – tipset för brädets ställning, eller null om det inte finns i cachen
+    public synchronized Hint get(Board board) {
+        Hint hint = this.hints.get(board.getHash());
+        if (hint != null) {
+            ++this.hits;
+        } else {
+            ++this.misses;
+        }
+        return hint;
+    }
+
+    // getSolution – en kortaste lösning från brädets ställning ihopsatt av sparade tips, eller null om
+    // ställningen saknas eller kedjan av tips bryts någonstans på vägen (brädet ändras inte).
+    // Nycklarna är hela 64-bitars hashar, så bara det första draget prövas mot brädet; sedan följs kedjan
+    // med hashen som varje tips har för nästa ställning.
+    public synchronized List<Move> getSolution(Board board) {
+        Hint first = this.get(board);
+        if (first == null) {
+            return null;
+        }
+        List<Move> solution = new ArrayList<>(first.distance);
+        if (first.distance > 0 && !board.canMove(first.move.fromRow, first.move.fromCol)) {
+            return null;
+        }
+
+        Hint hint = first;
+        while (hint != null && hint.distance > 0) {
+            // Varje tips måste föra ställningen ett steg närmare målet
+            if (hint.distance != first.distance - solution.size() || hint.next == 0L) {
+                return null;
+            }
+            solution.add(hint.move);
+            hint = this.hints.get(hint.next);
+        }
+        return hint != null ? solution : null;
+    }
+
+    // put – sparar ett tips för brädets ställning
+    public synchronized void put(Board board, Hint hint) {
+        this.hints.put(board.getHash(), hint);
+    }
+
+    // putSolution – sparar ett tips för varje ställning längs en kortaste lösning från brädets ställning
+    // (brädet ändras inte) och returnerar tipset för den första
+    public Hint putSolution(Board board, List<Move> solution) {
+        Board copy = copyOf(board); // Lösningen spelas på en kopia för att få varje ställnings hash
+
+        Hint first = null;
+        synchronized (this) {
+            for (int i = 0; i < solution.size(); ++i) {
+                Move m = solution.get(i);
+                long hash = copy.getHash();
+                copy.move(m.fromRow, m.fromCol);
+                Hint hint = new Hint(m, solution.size() - i, copy.getHash());
+                this.hints.put(hash, hint);
+                if (first == null) {
+                    first = hint;
+                }
+            }
+            Hint solved = new Hint(null, 0);
+            this.hints.put(copy.getHash(), solved);
+            return first != null ? first : solved;
+        }
+    }
+
+    // size – antal ställningar i cachen
+    public synchronized int size() {
+        return this.hints.size();
+    }
+
+    // clear – tömmer cachen (räknarna behålls)
+    public synchronized void clear() {
+        this.hints.clear();
+    }
+
+    // resetCounters – nollställer träffar, missar och utslängda tips (för Metrics)
+    public synchronized void resetCounters() {
+        this.hits = 0L;
+        this.misses = 0L;
+        this.evictions = 0L;
+    }
+
+    // copyOf – ett bräde i samma ställning som board, utan ångra-historik att tala om
+    private static Board copyOf(Board board) {
+        Board copy = new Board(board.size());
+        copy.setHistoryLimit(1L);
+        copy.setCells(board.toArray());
+        return copy;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+}
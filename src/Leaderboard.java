@@ -0,0 +1,389 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Klassen Leaderboard sparar alla resultat i en binärfil med lika stora poster (Highscore.dat)
+// och håller ett litet index per brädstorlek (Highscore.idx) med de bästa posterna.
+// Topplistan för en storlek läses direkt ur indexet och några få poster – resten av filen rörs inte,
+// hur många resultat som än har sparats. Äldre resultat utan storlek har en egen lista (UNKNOWN_SIZE).
+// Spelet använder en gemensam topplista i Highscore.DIR (se Highscore); en egen mapp ger en egen topplista.
+public final class Leaderboard {
+
+    public static final int UNKNOWN_SIZE = 0;     // "Storleken" för äldre resultat som saknar storlek
+
+    private static final int MAGIC = 0x48534931;  // "HSI1" – känns igen i början av indexfilen
+    private static final int MAX_SIZE = Board.MAX_SIZE; // Största brädstorlek som har en egen lista
+    private static final int TOP_N = 10;          // Antal resultat per storlek i indexet
+
+    // En post: storlek (int), drag (int), tid (long), tidpunkt (long), namnlängd (short), namn (UTF-8)
+    private static final int RECORD_SIZE = 64;
+    private static final int NAME_BYTES = RECORD_SIZE - 26;
+
+    // Indexet: huvud (magic, reserverat, antal poster som ingår) och ett block per storlek.
+    // Blocket: antal (int) och TOP_N platser med postnummer (long), drag (int) och tid (long).
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 20;
+    private static final int BLOCK_SIZE = 4 + TOP_N * SLOT_SIZE;
+    private static final int INDEX_SIZE = HEADER_SIZE + (MAX_SIZE + 1) * BLOCK_SIZE;
+
+    private final File data;   // Alla resultat, en post per resultat
+    private final File index;  // Bästa posterna per storlek
+    private boolean checked;   // true när indexet kontrollerats mot datafilen av det här objektet
+
+    // Skapar en topplista med filerna i en mapp (filerna skapas när första resultatet sparas)
+    public Leaderboard(File dir) {
+        this.data = new File(dir, "Highscore.dat");
+        this.index = new File(dir, "Highscore.idx");
+    }
+
+    // add – lägger till ett resultat sist i datafilen och uppdaterar indexet för dess storlek
+    public synchronized void add(Highscore.Entry entry) {
+        if (entry.size < UNKNOWN_SIZE || entry.size > MAX_SIZE) {
+            return;
+        }
+
+        try (FileChannel data = FileChannel.open(this.data.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel index = FileChannel.open(this.index.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long covered = this.ensureIndex(data, index);
+
+            // Posten skrivs och tvingas ut till disk innan indexet pekar på den
+            long record = covered;
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            writeRecord(buffer, entry);
+            buffer.flip();
+            writeFully(data, buffer, record * RECORD_SIZE);
+            data.force(false);
+
+            insert(index, entry.size, record, entry.moves, entry.timeMs);
+            setCovered(index, record + 1);
+            index.force(false);
+        } catch (IOException e) {
+            // Om skrivningen misslyckas: skriv stacktrace till konsolen
+            e.printStackTrace();
+        }
+    }
+
+    // top – hämtar de (högst n) bästa resultaten för en brädstorlek (eller UNKNOWN_SIZE), bäst först
+    public synchronized List<Highscore.Entry> top(int size, int n) {
+        List<Highscore.Entry> list = new ArrayList<>();
+        if (size < UNKNOWN_SIZE || size > MAX_SIZE || !this.data.exists()) {
+            return list;
+        }
+
+        try (FileChannel data = FileChannel.open(this.data.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel index = FileChannel.open(this.index.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.ensureIndex(data, index);
+
+            // Läser bara blocket för den här storleken och posterna det pekar på
+            ByteBuffer block = readFully(index, blockOffset(size), BLOCK_SIZE);
+            int count = Math.min(block.getInt(0), n);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (int i = 0; i < count; ++i) {
+                long recordNo = block.getLong(4 + i * SLOT_SIZE);
+                record.clear();
+                readInto(data, record, recordNo * RECORD_SIZE);
+                list.add(readRecord(record));
+            }
+        } catch (IOException e) {
+            // Om filen inte går att läsa visas en tom lista
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    // best – de (högst n) bästa resultaten oavsett storlek, bäst först. Läser hela indexet (ett block per
+    // storlek) men bara de poster som kommer med.
+    public synchronized List<Highscore.Entry> best(int n) {
+        List<Highscore.Entry> list = new ArrayList<>();
+        if (!this.data.exists()) {
+            return list;
+        }
+
+        try (FileChannel data = FileChannel.open(this.data.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel index = FileChannel.open(this.index.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.ensureIndex(data, index);
+            ByteBuffer all = readFully(index, 0, INDEX_SIZE);
+
+            // Väljer de n bästa platserna bland alla block (jämförs på samma sätt som i insert)
+            List<Integer> slots = new ArrayList<>(); // Platsernas position i indexet
+            for (int size = UNKNOWN_SIZE; size <= MAX_SIZE; ++size) {
+                int offset = (int) blockOffset(size);
+                for (int i = 0; i < all.getInt(offset); ++i) {
+                    slots.add(offset + 4 + i * SLOT_SIZE);
+                }
+            }
+            slots.sort((a, b) -> all.getInt(a + 8) != all.getInt(b + 8)
+                    ? Integer.compare(all.getInt(a + 8), all.getInt(b + 8))
+                    : Long.compare(all.getLong(a + 12), all.getLong(b + 12)));
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (int i = 0; i < Math.min(n, slots.size()); ++i) {
+                record.clear();
+                readInto(data, record, all.getLong(slots.get(i)) * RECORD_SIZE);
+                list.add(readRecord(record));
+            }
+        } catch (IOException e) {
+            // Om filen inte går att läsa visas en tom lista
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    // importText – läser in resultaten från den gamla textfilen (rader "namn;drag;tid[;storlek;tidpunkt]") och
+    // döper sedan om den till .migrated. Rader utan storlek hamnar under UNKNOWN_SIZE. Ett resultat som redan
+    // finns i topplistan läggs inte in igen, så ett avbrott mitt i inläsningen ger inga dubbletter när den görs om.
+    // Returnerar antalet resultat som lades till.
+    public synchronized int importText(File file) {
+        List<Highscore.Entry> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                Highscore.Entry entry = parseLine(line);
+                if (entry != null && entry.size >= UNKNOWN_SIZE && entry.size <= MAX_SIZE) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            // Filen lämnas kvar och läses igen nästa gång
+            e.printStackTrace();
+            return 0;
+        }
+
+        int added = 0;
+        for (Highscore.Entry entry : entries) {
+            boolean present = false;
+            for (Highscore.Entry other : this.top(entry.size, TOP_N)) {
+                present |= other.name.equals(entry.name) && other.moves == entry.moves
+                        && other.timeMs == entry.timeMs && other.timestamp == entry.timestamp;
+            }
+            if (!present) {
+                this.add(entry);
+                ++added;
+            }
+        }
+
+        try {
+            Files.move(file.toPath(), new File(file.getPath() + ".migrated").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return added;
+    }
+
+    // replace – ersätter alla sparade resultat med en lista. Den nya datafilen skrivs till en tillfällig fil
+    // och byts ut i ett steg; indexet tas bort först och byggs om vid nästa läsning, så ett avbrott lämnar
+    // antingen de gamla eller de nya resultaten.
+    public synchronized void replace(List<Highscore.Entry> entries) {
+        Path target = this.data.toPath().toAbsolutePath();
+        Path temp = target.resolveSibling(this.data.getName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+                long records = 0L;
+                for (Highscore.Entry entry : entries) {
+                    if (entry.size >= UNKNOWN_SIZE && entry.size <= MAX_SIZE) {
+                        buffer.clear();
+                        writeRecord(buffer, entry);
+                        buffer.flip();
+                        writeFully(channel, buffer, records++ * RECORD_SIZE);
+                    }
+                }
+                channel.force(true);
+            }
+
+            Files.deleteIfExists(this.index.toPath());
+            this.checked = false;
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Om skrivningen misslyckas ligger de gamla resultaten kvar (indexet byggs om)
+            e.printStackTrace();
+        }
+    }
+
+    // ensureIndex – kontrollerar indexet och tar igen poster som saknas i det (eller bygger om det helt).
+    // Returnerar antalet poster i datafilen.
+    private long ensureIndex(FileChannel data, FileChannel index) throws IOException {
+        long records = data.size() / RECORD_SIZE;  // En halvskriven post sist räknas inte
+        if (this.checked && index.size() == INDEX_SIZE) {
+            return records;
+        }
+
+        long covered = 0L;
+        if (index.size() == INDEX_SIZE && readFully(index, 0, HEADER_SIZE).getInt(0) == MAGIC) {
+            covered = readFully(index, 8, 8).getLong(0);
+        }
+        if (covered == 0L || covered > records) {
+            // Indexet saknas eller stämmer inte: börja om med tomma block
+            ByteBuffer empty = ByteBuffer.allocate(INDEX_SIZE);
+            empty.putInt(0, MAGIC);
+            writeFully(index, empty, 0);
+            index.truncate(INDEX_SIZE);
+            covered = 0L;
+        }
+
+        // Lägger in poster som skrevs efter att indexet senast sparades (t.ex. efter ett avbrott)
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        for (long r = covered; r < records; ++r) {
+            record.clear();
+            readInto(data, record, r * RECORD_SIZE);
+            int size = record.getInt(0);
+            if (size >= UNKNOWN_SIZE && size <= MAX_SIZE) {
+                insert(index, size, r, record.getInt(4), record.getLong(8));
+            }
+        }
+        setCovered(index, records);
+        index.force(false);
+
+        this.checked = true;
+        return records;
+    }
+
+    // insert – sorterar in en post i blockets topplista (först drag, sedan tid) om den är bra nog.
+    // Finns posten redan i blocket görs ingenting: blocket kan ha hunnit skrivas men inte antalet poster
+    // som ingår (ett avbrott mellan insert och setCovered), och då läggs posten in igen av ensureIndex.
+    private static void insert(FileChannel index, int size, long recordNo, int moves, long timeMs) throws IOException {
+        long offset = blockOffset(size);
+        ByteBuffer block = readFully(index, offset, BLOCK_SIZE);
+        int count = block.getInt(0);
+        for (int i = 0; i < count; ++i) {
+            if (block.getLong(4 + i * SLOT_SIZE) == recordNo) {
+                return; // Redan inlagd
+            }
+        }
+
+        // Hittar platsen där posten ska in
+        int pos = 0;
+        while (pos < count) {
+            int slot = 4 + pos * SLOT_SIZE;
+            int otherMoves = block.getInt(slot + 8);
+            long otherTime = block.getLong(slot + 12);
+            if (moves < otherMoves || (moves == otherMoves && timeMs < otherTime)) {
+                break;
+            }
+            ++pos;
+        }
+        if (pos >= TOP_N) {
+            return; // Inte bra nog för topplistan
+        }
+
+        // Flyttar ner sämre poster ett steg (den sista trillar ur om blocket är fullt)
+        int last = Math.min(count, TOP_N - 1);
+        for (int i = last; i > pos; --i) {
+            int to = 4 + i * SLOT_SIZE;
+            int from = to - SLOT_SIZE;
+            block.putLong(to, block.getLong(from));
+            block.putInt(to + 8, block.getInt(from + 8));
+            block.putLong(to + 12, block.getLong(from + 12));
+        }
+
+        int slot = 4 + pos * SLOT_SIZE;
+        block.putLong(slot, recordNo);
+        block.putInt(slot + 8, moves);
+        block.putLong(slot + 12, timeMs);
+        block.putInt(0, Math.min(count + 1, TOP_N));
+
+        block.clear();
+        writeFully(index, block, offset);
+    }
+
+    // setCovered – sparar hur många poster i datafilen som finns med i indexet
+    private static void setCovered(FileChannel index, long covered) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putLong(0, covered);
+        writeFully(index, buffer, 8);
+    }
+
+    private static long blockOffset(int size) {
+        return HEADER_SIZE + (long) size * BLOCK_SIZE;
+    }
+
+    // writeRecord – skriver ett resultat som en post med fast längd
+    private static void writeRecord(ByteBuffer buffer, Highscore.Entry entry) {
+        byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+        int length = name.length;
+        if (length > NAME_BYTES) {
+            // Kortar namnet utan att dela ett tecken som består av flera byte
+            length = NAME_BYTES;
+            while (length > 0 && (name[length] & 0xC0) == 0x80) {
+                --length;
+            }
+        }
+
+        buffer.putInt(entry.size);
+        buffer.putInt(entry.moves);
+        buffer.putLong(entry.timeMs);
+        buffer.putLong(entry.timestamp);
+        buffer.putShort((short) length);
+        buffer.put(name, 0, length);
+        buffer.position(RECORD_SIZE);
+    }
+
+    // readRecord – läser tillbaka ett resultat från en post
+    private static Highscore.Entry readRecord(ByteBuffer buffer) {
+        int size = buffer.getInt(0);
+        int moves = buffer.getInt(4);
+        long timeMs = buffer.getLong(8);
+        long timestamp = buffer.getLong(16);
+        int length = Math.min(buffer.getShort(24), NAME_BYTES);
+        String name = new String(buffer.array(), 26, Math.max(0, length), StandardCharsets.UTF_8);
+        return new Highscore.Entry(name, moves, timeMs, size, timestamp);
+    }
+
+    // parseLine – tolkar en rad från den gamla textfilen, returnerar null om raden är trasig
+    private static Highscore.Entry parseLine(String line) {
+        String[] parts = line.split(";");
+        if (parts.length >= 3) {
+            try {
+                String name = parts[0];
+                int moves = Integer.parseInt(parts[1]);
+                long time = Long.parseLong(parts[2]);
+
+                // Äldre rader saknar storlek och tidpunkt
+                if (parts.length >= 5) {
+                    return new Highscore.Entry(name, moves, time, Integer.parseInt(parts[3]), Long.parseLong(parts[4]));
+                }
+                return new Highscore.Entry(name, moves, time);
+            } catch (NumberFormatException e) {
+                // Trasig rad (t.ex. halvskriven vid ett avbrott) hoppas över
+            }
+        }
+        return null;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readInto(channel, buffer, position);
+        return buffer;
+    }
+
+    private static void readInto(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Oväntat slut på filen");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+// Klassen ManhattanHeuristic räknar Manhattan-avståndet (summan av hur långt varje bricka har kvar
+// till sin målruta) och kan lägga till linjära konflikter: två brickor som ligger i sin rätta rad
+// (eller kolumn) men i fel ordning måste flytta ur vägen för varandra, vilket kostar minst 2 extra drag.
+// Allt uppdateras inkrementellt – ett drag ändrar bara en bricka och högst två rader eller kolumner.
+public final class ManhattanHeuristic implements Heuristic {
+
+    private final int size;                // Brädets storlek (t.ex. 4 för 4x4)
+    private final int cells;               // Antalet rutor (size * size)
+    private final boolean linearConflict;  // true om linjära konflikter ska räknas med
+
+    private final int[] distance;  // Manhattan-avstånd för bricka t på ruta p: distance[t * cells + p]
+    private final int[] rowOf;     // Raden för varje ruta
+    private final int[] colOf;     // Kolumnen för varje ruta
+    private final int[] goalRow;   // Målraden för varje bricka
+    private final int[] goalCol;   // Målkolumnen för varje bricka
+
+    private final int[] rowConflicts; // Antal brickor som måste lämna varje rad
+    private final int[] colConflicts; // Antal brickor som måste lämna varje kolumn
+    private final int[] line;         // Arbetsyta: målpositioner för brickorna i en rad/kolumn
+    private final int[] tails;        // Arbetsyta för längsta växande delföljd
+
+    private int manhattan;  // Nuvarande Manhattan-summa
+    private int conflicts;  // Nuvarande summa av rowConflicts och colConflicts
+
+    // Skapar en heuristik med Manhattan-avstånd och linjära konflikter
+    public ManhattanHeuristic(int size) {
+        this(size, true);
+    }
+
+    // Skapar en heuristik, med eller utan linjära konflikter
+    public ManhattanHeuristic(int size, boolean linearConflict) {
+        this.size = size;
+        this.cells = size * size;
+        this.linearConflict = linearConflict;
+
+        this.rowOf = new int[this.cells];
+        this.colOf = new int[this.cells];
+        this.goalRow = new int[this.cells];
+        this.goalCol = new int[this.cells];
+        for (int i = 0; i < this.cells; ++i) {
+            this.rowOf[i] = i / size;
+            this.colOf[i] = i % size;
+        }
+
+        // Bricka t hör hemma på ruta t - 1 (samma mål som Board.initSolved)
+        for (int tile = 1; tile < this.cells; ++tile) {
+            this.goalRow[tile] = (tile - 1) / size;
+            this.goalCol[tile] = (tile - 1) % size;
+        }
+
+        // Förberäknar alla avstånd så att ett drag bara kostar två tabell-uppslag
+        this.distance = new int[this.cells * this.cells];
+        for (int tile = 1; tile < this.cells; ++tile) {
+            for (int pos = 0; pos < this.cells; ++pos) {
+                this.distance[tile * this.cells + pos] =
+                        Math.abs(this.rowOf[pos] - this.goalRow[tile]) + Math.abs(this.colOf[pos] - this.goalCol[tile]);
+            }
+        }
+
+        this.rowConflicts = new int[size];
+        this.colConflicts = new int[size];
+        this.line = new int[size];
+        this.tails = new int[size];
+    }
+
+    @Override
+    public int reset(byte[] tiles) {
+        this.manhattan = 0;
+        for (int pos = 0; pos < this.cells; ++pos) {
+            int tile = tiles[pos] & 0xFF;
+            if (tile != 0) {
+                this.manhattan += this.distance[tile * this.cells + pos];
+            }
+        }
+
+        this.conflicts = 0;
+        if (this.linearConflict) {
+            for (int i = 0; i < this.size; ++i) {
+                this.rowConflicts[i] = this.rowConflicts(tiles, i);
+                this.colConflicts[i] = this.colConflicts(tiles, i);
+                this.conflicts += this.rowConflicts[i] + this.colConflicts[i];
+            }
+        }
+
+        return this.manhattan + 2 * this.conflicts;
+    }
+
+    @Override
+    public int apply(byte[] tiles, int tile, int from, int to) {
+        this.manhattan += this.distance[tile * this.cells + to] - this.distance[tile * this.cells + from];
+
+        if (this.linearConflict) {
+            if (this.rowOf[from] != this.rowOf[to]) {
+                // Lodrätt drag: ordningen i kolumnen ändras inte, bara de två raderna påverkas
+                this.updateRow(tiles, this.rowOf[from]);
+                this.updateRow(tiles, this.rowOf[to]);
+            } else {
+                // Vågrätt drag: bara de två kolumnerna påverkas
+                this.updateCol(tiles, this.colOf[from]);
+                this.updateCol(tiles, this.colOf[to]);
+            }
+        }
+
+        return this.manhattan + 2 * this.conflicts;
+    }
+
+    // Räknar om en rad och justerar totalsumman
+    private void updateRow(byte[] tiles, int row) {
+        int value = this.rowConflicts(tiles, row);
+        this.conflicts += value - this.rowConflicts[row];
+        this.rowConflicts[row] = value;
+    }
+
+    // Räknar om en kolumn och justerar totalsumman
+    private void updateCol(byte[] tiles, int col) {
+        int value = this.colConflicts(tiles, col);
+        this.conflicts += value - this.colConflicts[col];
+        this.colConflicts[col] = value;
+    }
+
+    // Antal brickor som måste lämna raden för att de som hör hemma där ska hamna i rätt ordning
+    private int rowConflicts(byte[] tiles, int row) {
+        int k = 0;
+        for (int col = 0; col < this.size; ++col) {
+            int tile = tiles[row * this.size + col] & 0xFF;
+            if (tile != 0 && this.goalRow[tile] == row) {
+                this.line[k++] = this.goalCol[tile];
+            }
+        }
+        return k - this.longestIncreasing(k);
+    }
+
+    // Antal brickor som måste lämna kolumnen för att de som hör hemma där ska hamna i rätt ordning
+    private int colConflicts(byte[] tiles, int col) {
+        int k = 0;
+        for (int row = 0; row < this.size; ++row) {
+            int tile = tiles[row * this.size + col] & 0xFF;
+            if (tile != 0 && this.goalCol[tile] == col) {
+                this.line[k++] = this.goalRow[tile];
+            }
+        }
+        return k - this.longestIncreasing(k);
+    }
+
+    // Längsta växande delföljd av line[0..k) – de brickorna kan stå kvar, resten måste flytta undan
+    private int longestIncreasing(int k) {
+        int length = 0;
+        for (int i = 0; i < k; ++i) {
+            int value = this.line[i];
+            int j = 0;
+            while (j < length && this.tails[j] < value) {
+                ++j;
+            }
+            this.tails[j] = value;
+            if (j == length) {
+                ++length;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,352 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+
+// Klassen Metrics mäter var tiden går: antal anrop och en fördelning av tiden för drag, omritning,
+// highscore-filen och status-timern, plus en vakt som märker när Swing-tråden står still för länge.
+// Mätningen skapar inga objekt: en mätpunkt är fasta räknare och hinkar, och den som mäter gör
+//   long start = Metrics.now();  ...  Metrics.MOVE.record(start);
+// Allt visas i JMX (puzzle:type=Metrics) och kan dessutom skrivas till en fil med jämna mellanrum.
+// Inställningar (systemegenskaper): -Dmetrics=false stänger av mätningen, -Dmetrics.stallMs=100 sätter
+// gränsen för en blockerad Swing-tråd, -Dmetrics.snapshot=fil och -Dmetrics.snapshotMs=10000 slår på filen.
+public final class Metrics {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("metrics", "true"));
+
+    public static final Probe MOVE = new Probe("move");
+    public static final Probe REFRESH = new Probe("refresh");
+    public static final Probe HIGHSCORE_LOAD = new Probe("highscoreLoad");
+    public static final Probe HIGHSCORE_SAVE = new Probe("highscoreSave");
+    public static final Probe STATUS_TICK = new Probe("statusTick");
+    public static final Probe EDT_LATENCY = new Probe("edtLatency");
+
+    private static final Probe[] PROBES = {MOVE, REFRESH, HIGHSCORE_LOAD, HIGHSCORE_SAVE, STATUS_TICK, EDT_LATENCY};
+
+    private static volatile long stallThresholdMs = Long.getLong("metrics.stallMs", 100L);
+    private static final AtomicLong STALLS = new AtomicLong();
+    private static boolean installed;
+    private static volatile HintCache hintCache; // Tipscachen vars räknare visas (null om ingen)
+
+    private Metrics() {
+    }
+
+    // now – starttiden för en mätning (0 om mätningen är avstängd)
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    // Probe – en mätpunkt: antal, summa, max och fördelningen av tiden i nanosekunder.
+    // Hinkarna är desamma som i MoveStats (32 per fördubbling, högst cirka 3 % fel).
+    // Säker att anropa från flera trådar och skapar aldrig några objekt.
+    public static final class Probe {
+
+        private static final int SUB_BITS = 5;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+        private final String name;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Probe(String name) {
+            this.name = name;
+        }
+
+        // record – lägger till tiden från start (från Metrics.now()) till nu
+        public void record(long start) {
+            if (ENABLED) {
+                this.recordNanos(System.nanoTime() - start);
+            }
+        }
+
+        // recordNanos – lägger till en uppmätt tid
+        public void recordNanos(long nanos) {
+            if (nanos < 0L) {
+                nanos = 0L;
+            }
+            this.counts.incrementAndGet(bucket(nanos));
+            this.count.incrementAndGet();
+            this.totalNanos.addAndGet(nanos);
+            long max = this.maxNanos.get();
+            while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+                max = this.maxNanos.get();
+            }
+        }
+
+        public String name() {
+            return this.name;
+        }
+
+        public long count() {
+            return this.count.get();
+        }
+
+        // percentileNanos – tiden som andelen p (0–1) av mätningarna klarade sig på eller under
+        public long percentileNanos(double p) {
+            long total = 0L;
+            for (int i = 0; i < BUCKETS; ++i) {
+                total += this.counts.get(i);
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(p * total));
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; ++i) {
+                seen += this.counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(this.maxNanos.get(), upperBound(i));
+                }
+            }
+            return this.maxNanos.get();
+        }
+
+        // snapshot – värdena just nu, för JMX
+        MetricsMXBean.Stats snapshot() {
+            long n = this.count.get();
+            return new MetricsMXBean.Stats(n, n == 0L ? 0.0 : this.totalNanos.get() / 1e3 / n,
+                    this.percentileNanos(0.5) / 1000L, this.percentileNanos(0.99) / 1000L, this.maxNanos.get() / 1000L);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; ++i) {
+                this.counts.set(i, 0L);
+            }
+            this.count.set(0L);
+            this.totalNanos.set(0L);
+            this.maxNanos.set(0L);
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BITS
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+        }
+
+        private static long lowerBound(int bucket) {
+            if (bucket < SUB_COUNT) {
+                return bucket;
+            }
+            int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+            int sub = bucket & (SUB_COUNT - 1);
+            return (long) (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket + 1 < BUCKETS ? lowerBound(bucket + 1) - 1 : Long.MAX_VALUE;
+        }
+    }
+
+    // watch – visar tipscachens träffar, missar och storlek i JMX och snapshot-filen; returnerar cachen
+    public static HintCache watch(HintCache cache) {
+        hintCache = cache;
+        return cache;
+    }
+
+    // install – registrerar JMX-bönan och startar vakten och snapshot-filen (görs en gång, vid start)
+    public static synchronized void install() {
+        if (!ENABLED || installed) {
+            return;
+        }
+        installed = true;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName("puzzle:type=Metrics"));
+        } catch (JMException e) {
+            e.printStackTrace(); // Mätningen fungerar ändå, den syns bara inte i JMX
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((task) -> {
+            Thread thread = new Thread(task, "Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        StallDetector detector = new StallDetector();
+        scheduler.scheduleWithFixedDelay(detector::check, StallDetector.PERIOD_MS, StallDetector.PERIOD_MS,
+                TimeUnit.MILLISECONDS);
+
+        String snapshot = System.getProperty("metrics.snapshot");
+        if (snapshot != null) {
+            File file = new File(snapshot);
+            long period = Long.getLong("metrics.snapshotMs", 10_000L);
+            scheduler.scheduleAtFixedRate(() -> writeSnapshot(file), period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // StallDetector – lägger ett ping-event i Swing-kön och mäter hur länge det dröjer innan det körs.
+    // Dröjer det längre än gränsen räknas det som ett stopp, och Swing-trådens stack skrivs ut en gång
+    // medan den fortfarande är blockerad så att det syns var den fastnat.
+    private static final class StallDetector {
+
+        static final long PERIOD_MS = 20L; // Hur ofta vakten tittar
+
+        private final Runnable ping = this::pong;  // Samma objekt varje gång
+        private volatile long postedAt;            // När pinget lades i kön (0 = inget ping väntar)
+        private volatile Thread edt;               // Swing-tråden (sätts av första pinget)
+        private boolean reported;                  // Det väntande pinget har redan räknats som ett stopp
+
+        // check – körs av vaktens tråd
+        void check() {
+            long posted = this.postedAt;
+            if (posted == 0L) {
+                this.reported = false;
+                this.postedAt = System.nanoTime();
+                SwingUtilities.invokeLater(this.ping);
+                return;
+            }
+
+            long waitedMs = (System.nanoTime() - posted) / 1_000_000L;
+            if (!this.reported && waitedMs >= stallThresholdMs) {
+                this.reported = true;
+                STALLS.incrementAndGet();
+                Thread thread = this.edt;
+                if (thread != null) {
+                    StringBuilder sb = new StringBuilder("Swing-tråden har varit blockerad i " + waitedMs + " ms:");
+                    for (StackTraceElement element : thread.getStackTrace()) {
+                        sb.append(System.lineSeparator()).append("\tat ").append(element);
+                    }
+                    System.err.println(sb);
+                }
+            }
+        }
+
+        // pong – körs i Swing-tråden
+        private void pong() {
+            this.edt = Thread.currentThread();
+            EDT_LATENCY.record(this.postedAt);
+            this.postedAt = 0L;
+        }
+    }
+
+    // writeSnapshot – skriver alla mätpunkter till filen (via en tillfällig fil så den aldrig är halvskriven)
+    private static void writeSnapshot(File file) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (PrintWriter out = new PrintWriter(tmp, "UTF-8")) {
+            out.printf("# %tF %<tT, stopp i Swing-tråden (>= %d ms): %d%n",
+                    System.currentTimeMillis(), stallThresholdMs, STALLS.get());
+            out.println("name,count,mean_us,p50_us,p99_us,max_us");
+            for (Probe probe : PROBES) {
+                MetricsMXBean.Stats p = probe.snapshot();
+                out.printf("%s,%d,%.1f,%d,%d,%d%n", probe.name(), p.getCount(), p.getMeanMicros(),
+                        p.getP50Micros(), p.getP99Micros(), p.getMaxMicros());
+            }
+            HintCache cache = hintCache;
+            if (cache != null) {
+                // Räknare utan tider: bara count-kolumnen är ifylld
+                out.printf("hintCacheHits,%d,,,,%n", cache.getHits());
+                out.printf("hintCacheMisses,%d,,,,%n", cache.getMisses());
+                out.printf("hintCacheEvictions,%d,,,,%n", cache.getEvictions());
+                out.printf("hintCacheSize,%d,,,,%n", cache.size());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Bean – det som registreras i JMX
+    private static final class Bean implements MetricsMXBean {
+
+        @Override
+        public MetricsMXBean.Stats getMove() {
+            return MOVE.snapshot();
+        }
+
+        @Override
+        public MetricsMXBean.Stats getRefresh() {
+            return REFRESH.snapshot();
+        }
+
+        @Override
+        public MetricsMXBean.Stats getHighscoreLoad() {
+            return HIGHSCORE_LOAD.snapshot();
+        }
+
+        @Override
+        public MetricsMXBean.Stats getHighscoreSave() {
+            return HIGHSCORE_SAVE.snapshot();
+        }
+
+        @Override
+        public MetricsMXBean.Stats getStatusTick() {
+            return STATUS_TICK.snapshot();
+        }
+
+        @Override
+        public MetricsMXBean.Stats getEdtLatency() {
+            return EDT_LATENCY.snapshot();
+        }
+
+        @Override
+        public long getHintCacheHits() {
+            HintCache cache = hintCache;
+            return cache != null ? cache.getHits() : 0L;
+        }
+
+        @Override
+        public long getHintCacheMisses() {
+            HintCache cache = hintCache;
+            return cache != null ? cache.getMisses() : 0L;
+        }
+
+        @Override
+        public long getHintCacheEvictions() {
+            HintCache cache = hintCache;
+            return cache != null ? cache.getEvictions() : 0L;
+        }
+
+        @Override
+        public int getHintCacheSize() {
+            HintCache cache = hintCache;
+            return cache != null ? cache.size() : 0;
+        }
+
+        @Override
+        public long getEdtStalls() {
+            return STALLS.get();
+        }
+
+        @Override
+        public long getStallThresholdMs() {
+            return stallThresholdMs;
+        }
+
+        @Override
+        public void setStallThresholdMs(long thresholdMs) {
+            stallThresholdMs = thresholdMs;
+        }
+
+        @Override
+        public void reset() {
+            for (Probe probe : PROBES) {
+                probe.reset();
+            }
+            STALLS.set(0L);
+            HintCache cache = hintCache;
+            if (cache != null) {
+                cache.resetCounters();
+            }
+        }
+    }
+}
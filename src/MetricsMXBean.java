@@ -0,0 +1,70 @@
+// Gränssnittet MetricsMXBean är det som syns i JMX (t.ex. i JConsole under puzzle:type=Metrics).
+// Varje mätpunkt visas som en sammansatt post med antal, medel, percentiler och max i mikrosekunder.
+public interface MetricsMXBean {
+
+    // Stats – en mätpunkts värden när de lästes
+    final class Stats {
+
+        private final long count;
+        private final double meanMicros;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        public Stats(long count, double meanMicros, long p50Micros, long p99Micros, long maxMicros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public double getMeanMicros() {
+            return this.meanMicros;
+        }
+
+        public long getP50Micros() {
+            return this.p50Micros;
+        }
+
+        public long getP99Micros() {
+            return this.p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return this.maxMicros;
+        }
+    }
+
+    Stats getMove();            // GameController.onTileClicked
+
+    Stats getRefresh();         // BoardPanel.refresh
+
+    Stats getHighscoreLoad();   // Highscore.load
+
+    Stats getHighscoreSave();   // Highscore.save
+
+    Stats getStatusTick();      // En körning av StatusScheduler
+
+    Stats getEdtLatency();      // Tid från att ett event läggs i kön tills Swing-tråden kör det
+
+    long getHintCacheHits();       // Tips som hittades i GameControllers HintCache
+
+    long getHintCacheMisses();     // Tips som inte fanns i cachen
+
+    long getHintCacheEvictions();  // Tips som slängts för att cachen var full
+
+    int getHintCacheSize();        // Antal ställningar i cachen
+
+    long getEdtStalls();        // Antal gånger Swing-tråden varit blockerad längre än gränsen
+
+    long getStallThresholdMs();
+
+    void setStallThresholdMs(long thresholdMs);
+
+    void reset();               // Nollställer alla mätpunkter (och tipscachens räknare)
+}
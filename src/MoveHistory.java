@@ -0,0 +1,290 @@
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+// Klassen MoveHistory sparar dragen för ångra/gör om kompakt: varje post är bara riktningen som den tomma
+// rutan flyttades åt (2 bitar), även ett drag rakt tillbaka. En hel rad som skjuts på en gång (se Board.slide)
+// är också en enda post, och dess längd sparas vid sidan av i en lista med en long per skjuten rad
+// (postens index och längden). Vanliga drag kostar alltså aldrig mer än 2 bitar.
+// Posterna ligger i block av long som skapas när det behövs, så ett vanligt drag allokerar ingenting.
+// Ångrade drag ligger kvar efter markören tills ett nytt drag görs.
+public final class MoveHistory {
+
+    public static final int UP = 0;      // Den tomma rutan flyttades upp
+    public static final int DOWN = 1;    // Den tomma rutan flyttades ner
+    public static final int LEFT = 2;    // Den tomma rutan flyttades åt vänster
+    public static final int RIGHT = 3;   // Den tomma rutan flyttades åt höger
+
+    public static final int MAX_RUN = 255;  // Längsta skjutna rad (längden sparas i 8 bitar)
+
+    private static final int WORDS_PER_CHUNK = 512;                 // Antal long per block (4 kB)
+    private static final int MOVES_PER_CHUNK = WORDS_PER_CHUNK * 32; // 32 poster per long
+
+    private long[][] chunks = new long[4][]; // Blocken, det äldsta först
+    private int chunkCount;                  // Antal block som används
+    private long chunkBase;                  // Blocknumret (räknat från början) för chunks[0]
+    private long[] spare;                    // Ett gammalt block som kan återanvändas
+
+    private long start;    // Index för den äldsta posten som finns kvar
+    private long cursor;   // Index där nästa post skrivs (allt före kan ångras)
+    private long end;      // Slutet på posterna som kan göras om
+    private long limit;    // Max antal sparade poster (0 = obegränsat)
+
+    // De skjutna raderna i ordning: postens index << 8 | längd. runStart är den äldsta som finns kvar,
+    // runCursor den första efter markören och runEnd slutet (på samma sätt som start, cursor och end).
+    private long[] runs = new long[16];
+    private int runStart;
+    private int runCursor;
+    private int runEnd;
+
+    // Skapar en obegränsad historik
+    public MoveHistory() {
+        this(0L);
+    }
+
+    // Skapar en historik som sparar minst limit drag (äldre drag släpps ett block i taget), 0 = obegränsat
+    public MoveHistory(long limit) {
+        this.setLimit(limit);
+    }
+
+    // setLimit – sätter ett tak för hur många poster som sparas, avrundat uppåt till hela block (0 = obegränsat).
+    // Varje post är minst ett drag, så minst limit drag finns kvar.
+    public void setLimit(long limit) {
+        this.limit = Math.max(0L, limit);
+        this.trim();
+    }
+
+    // opposite – motsatt riktning (upp ↔ ner, vänster ↔ höger)
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    // direction – riktningen i en post från undo eller redo
+    public static int direction(int entry) {
+        return entry & 3;
+    }
+
+    // length – antal steg i en post från undo eller redo (1 för ett vanligt drag)
+    public static int length(int entry) {
+        return entry >>> 2;
+    }
+
+    // push – sparar ett nytt drag och glömmer dragen som kunde göras om
+    public void push(int direction) {
+        this.push(direction, 1);
+    }
+
+    // push – sparar count steg åt samma håll som en enda post (ångras och görs om tillsammans)
+    public void push(int direction, int count) {
+        if (count < 1 || count > MAX_RUN) {
+            throw new IllegalArgumentException("Fel längd på drag: " + count);
+        }
+        this.runEnd = this.runCursor; // Skjutna rader efter markören glöms som alla andra poster
+        if (count > 1) {
+            this.addRun((this.cursor << 8) | count);
+            this.runCursor = this.runEnd;
+        }
+        this.write(this.cursor++, direction);
+        this.end = this.cursor;
+        this.trim();
+    }
+
+    // undo – backar en post och returnerar den (läs med direction och length), eller -1 om inget finns att ångra
+    public int undo() {
+        if (this.cursor == this.start) {
+            return -1;
+        }
+        --this.cursor;
+        int count = 1;
+        if (this.runCursor > this.runStart && this.runs[this.runCursor - 1] >>> 8 == this.cursor) {
+            count = (int) this.runs[--this.runCursor] & 0xFF;
+        }
+        return (count << 2) | this.read(this.cursor);
+    }
+
+    // redo – går fram en ångrad post och returnerar den (läs med direction och length), eller -1 om inget finns
+    public int redo() {
+        if (this.cursor == this.end) {
+            return -1;
+        }
+        int count = 1;
+        if (this.runCursor < this.runEnd && this.runs[this.runCursor] >>> 8 == this.cursor) {
+            count = (int) this.runs[this.runCursor++] & 0xFF;
+        }
+        return (count << 2) | this.read(this.cursor++);
+    }
+
+    // canUndo – true om det finns något att ångra
+    public boolean canUndo() {
+        return this.cursor > this.start;
+    }
+
+    // canRedo – true om det finns något att göra om
+    public boolean canRedo() {
+        return this.cursor < this.end;
+    }
+
+    // undoSize – antal poster som kan ångras
+    public long undoSize() {
+        return this.cursor - this.start;
+    }
+
+    // redoSize – antal poster som kan göras om
+    public long redoSize() {
+        return this.end - this.cursor;
+    }
+
+    // clear – tömmer historiken (första blocket behålls för nästa spel)
+    public void clear() {
+        if (this.chunkCount > 0) {
+            Arrays.fill(this.chunks, 1, this.chunkCount, null);
+            this.chunkCount = 1;
+        }
+        this.chunkBase = 0L;
+        this.start = 0L;
+        this.cursor = 0L;
+        this.end = 0L;
+        this.runStart = 0;
+        this.runCursor = 0;
+        this.runEnd = 0;
+    }
+
+    // encodedSize – antal byte som writeTo skriver
+    public int encodedSize() {
+        return 24 + (int) ((this.end - this.start + 31) >>> 5) * 8 + (this.runEnd - this.runStart) * 8;
+    }
+
+    // writeTo – skriver historiken kompakt: antal poster att ångra och att göra om och antal skjutna rader,
+    // sedan posterna (32 per long) med den äldsta först och till sist de skjutna raderna
+    public void writeTo(ByteBuffer out) {
+        long count = this.end - this.start;
+        out.putLong(this.cursor - this.start);
+        out.putLong(this.end - this.cursor);
+        out.putLong(this.runEnd - this.runStart);
+
+        long word = 0L;
+        for (long i = 0; i < count; ++i) {
+            word |= (long) this.read(this.start + i) << ((i & 31) << 1);
+            if ((i & 31) == 31 || i == count - 1) {
+                out.putLong(word);
+                word = 0L;
+            }
+        }
+        for (int r = this.runStart; r < this.runEnd; ++r) {
+            out.putLong(this.runs[r] - (this.start << 8)); // Index räknat från första posten
+        }
+    }
+
+    // readFrom – ersätter historiken med en som skrivits av writeTo (taket från setLimit gäller fortfarande).
+    // Den nya historiken börjar på index 0, så orden kopieras rakt in i blocken utan att packas om.
+    public void readFrom(ByteBuffer in) {
+        long undo = in.getLong();
+        long redo = in.getLong();
+        long runCount = in.getLong();
+        long count = undo + redo;
+        long words = (count + 31) >>> 5;
+        if (undo < 0 || redo < 0 || count < 0 || runCount < 0 || runCount > count
+                || in.remaining() < (words + runCount) * 8) {
+            throw new IllegalArgumentException("Trasig historik");
+        }
+
+        this.clear();
+        int needed = (int) ((count + MOVES_PER_CHUNK - 1) / MOVES_PER_CHUNK);
+        if (needed > this.chunks.length) {
+            this.chunks = Arrays.copyOf(this.chunks, needed);
+        }
+        while (this.chunkCount < needed) {
+            this.chunks[this.chunkCount++] = this.newChunk();
+        }
+
+        LongBuffer source = in.asLongBuffer();
+        for (int c = 0; c < needed; ++c) {
+            source.get(this.chunks[c], 0, (int) Math.min(WORDS_PER_CHUNK, words - (long) c * WORDS_PER_CHUNK));
+        }
+        in.position(in.position() + (int) words * 8);
+
+        long previous = -1L;
+        for (long r = 0; r < runCount; ++r) {
+            long run = in.getLong();
+            long index = run >>> 8;
+            if (index <= previous || index >= count || (run & 0xFF) < 2) {
+                throw new IllegalArgumentException("Trasig historik");
+            }
+            this.addRun(run);
+            if (index < undo) {
+                this.runCursor = this.runEnd;
+            }
+            previous = index;
+        }
+
+        this.end = count;
+        this.cursor = undo;
+        this.trim();
+    }
+
+    // addRun – lägger till en skjuten rad sist i listan (gamla som släppts av trim flyttas ut först)
+    private void addRun(long run) {
+        if (this.runEnd == this.runs.length) {
+            int live = this.runEnd - this.runStart;
+            long[] target = live * 2 > this.runs.length ? new long[this.runs.length * 2] : this.runs;
+            System.arraycopy(this.runs, this.runStart, target, 0, live);
+            this.runs = target;
+            this.runCursor -= this.runStart;
+            this.runEnd = live;
+            this.runStart = 0;
+        }
+        this.runs[this.runEnd++] = run;
+    }
+
+    // read – läser posten med ett visst index
+    private int read(long index) {
+        long[] chunk = this.chunks[(int) (index / MOVES_PER_CHUNK - this.chunkBase)];
+        int offset = (int) (index % MOVES_PER_CHUNK);
+        return (int) (chunk[offset >>> 5] >>> ((offset & 31) << 1)) & 3;
+    }
+
+    // write – skriver posten med ett visst index (skapar ett nytt block vid behov)
+    private void write(long index, int symbol) {
+        int chunkIndex = (int) (index / MOVES_PER_CHUNK - this.chunkBase);
+        if (chunkIndex == this.chunkCount) {
+            if (this.chunkCount == this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, this.chunkCount * 2);
+            }
+            this.chunks[this.chunkCount++] = this.newChunk();
+        }
+
+        long[] chunk = this.chunks[chunkIndex];
+        int offset = (int) (index % MOVES_PER_CHUNK);
+        int shift = (offset & 31) << 1;
+        chunk[offset >>> 5] = (chunk[offset >>> 5] & ~(3L << shift)) | ((long) symbol << shift);
+    }
+
+    // newChunk – återanvänder ett släppt block om det finns, annars skapas ett nytt
+    private long[] newChunk() {
+        if (this.spare != null) {
+            long[] chunk = this.spare;
+            this.spare = null;
+            return chunk;
+        }
+        return new long[WORDS_PER_CHUNK];
+    }
+
+    // trim – släpper de äldsta blocken (och deras skjutna rader) så länge minst limit poster ändå finns kvar
+    private void trim() {
+        while (this.limit > 0 && this.chunkCount > 1) {
+            long firstEnd = (this.chunkBase + 1) * MOVES_PER_CHUNK;
+            if (this.cursor - firstEnd < this.limit) {
+                break;
+            }
+
+            this.spare = this.chunks[0];
+            System.arraycopy(this.chunks, 1, this.chunks, 0, this.chunkCount - 1);
+            this.chunks[--this.chunkCount] = null;
+            ++this.chunkBase;
+            this.start = firstEnd;
+            while (this.runStart < this.runCursor && this.runs[this.runStart] >>> 8 < firstEnd) {
+                ++this.runStart;
+            }
+        }
+    }
+}
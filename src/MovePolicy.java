@@ -0,0 +1,11 @@
+// Gränssnittet MovePolicy är en strategi som väljer drag åt en spelare utan grafik (se GameEngine).
+// Ett objekt används av en tråd i taget och kan återanvändas för många spel efter varandra.
+public interface MovePolicy {
+
+    // reset – anropas före varje nytt spel, när brädet redan är blandat
+    void reset(Board board, long seed);
+
+    // next – riktningen (MoveHistory.UP, DOWN, LEFT eller RIGHT) som den tomma rutan ska flyttas åt,
+    // eller -1 för att ge upp spelet
+    int next(Board board);
+}
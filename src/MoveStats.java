@@ -0,0 +1,125 @@
+// Klassen MoveStats samlar statistik över många spel: antal spel, lösta spel, totalt antal drag
+// och fördelningen av antal drag för lösta spel. Fördelningen sparas i hinkar som växer med värdet
+// (32 hinkar per fördubbling, högst cirka 3 % fel), så minnet är litet och fast oavsett antal spel.
+public final class MoveStats {
+
+    private static final int SUB_BITS = 5;              // 2^5 = 32 hinkar per fördubbling
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (32 - SUB_BITS) * SUB_COUNT; // Räcker för alla int >= 0
+
+    private final long[] counts = new long[BUCKETS]; // Antal lösta spel per hink
+    private long games;        // Antal spelade spel
+    private long solved;       // Antal lösta spel
+    private long totalMoves;   // Drag i alla spel (även de som inte löstes)
+    private long solvedMoves;  // Drag i lösta spel
+    private int min = Integer.MAX_VALUE; // Minst antal drag i ett löst spel
+    private int max;                     // Flest antal drag i ett löst spel
+
+    // add – lägger till ett spel med moves drag
+    public void add(int moves, boolean isSolved) {
+        ++this.games;
+        this.totalMoves += moves;
+        if (!isSolved) {
+            return;
+        }
+        ++this.solved;
+        this.solvedMoves += moves;
+        ++this.counts[bucket(moves)];
+        this.min = Math.min(this.min, moves);
+        this.max = Math.max(this.max, moves);
+    }
+
+    // merge – lägger till all statistik från en annan MoveStats
+    public void merge(MoveStats other) {
+        for (int i = 0; i < BUCKETS; ++i) {
+            this.counts[i] += other.counts[i];
+        }
+        this.games += other.games;
+        this.solved += other.solved;
+        this.totalMoves += other.totalMoves;
+        this.solvedMoves += other.solvedMoves;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    public long getGames() {
+        return this.games;
+    }
+
+    public long getSolved() {
+        return this.solved;
+    }
+
+    public long getTotalMoves() {
+        return this.totalMoves;
+    }
+
+    // getMin – minst antal drag i ett löst spel (0 om inget spel löstes)
+    public int getMin() {
+        return this.solved == 0 ? 0 : this.min;
+    }
+
+    // getMax – flest antal drag i ett löst spel
+    public int getMax() {
+        return this.max;
+    }
+
+    // getMean – medelvärdet av antal drag i lösta spel
+    public double getMean() {
+        return this.solved == 0 ? 0.0 : (double) this.solvedMoves / this.solved;
+    }
+
+    // percentile – antal drag som andelen p (0–1) av de lösta spelen klarade sig på eller under
+    public int percentile(double p) {
+        if (this.solved == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(p * this.solved));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                // Hinkens övre gräns, men aldrig utanför det som faktiskt setts
+                return Math.max(this.min, Math.min(this.max, upperBound(i)));
+            }
+        }
+        return this.max;
+    }
+
+    // countBetween – ungefärligt antal lösta spel med from <= drag < to (hela hinkar räknas efter deras undre gräns)
+    public long countBetween(int from, int to) {
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            int lower = lowerBound(i);
+            if (lower >= from && lower < to) {
+                count += this.counts[i];
+            }
+        }
+        return count;
+    }
+
+    // bucket – hinken för ett värde: exakt under 32, sedan 32 hinkar per fördubbling
+    private static int bucket(int value) {
+        if (value < SUB_COUNT) {
+            return value;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value); // >= SUB_BITS
+        int sub = (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    // lowerBound – minsta värdet som hamnar i hinken
+    private static int lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        int sub = bucket & (SUB_COUNT - 1);
+        return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+
+    // upperBound – största värdet som hamnar i hinken
+    private static int upperBound(int bucket) {
+        return bucket + 1 < BUCKETS ? lowerBound(bucket + 1) - 1 : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,276 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Klassen ParallelSolver löser ett Board med IDA* på flera kärnor samtidigt.
+// Roten expanderas först till ett fast djup så att det finns många delträd (fronten).
+// För varje gräns fördelas delträden på en ForkJoinPool där varje tråd har en egen Solver.
+// Trådarna delar nästa gräns (minsta f som överskred) och en flagga som stoppar alla när en lösning hittats.
+public final class ParallelSolver {
+
+    private static final int TASKS_PER_THREAD = 32; // Ungefär så många delträd per tråd ger jämn fördelning
+    private static final int MAX_SPLIT_DEPTH = 16;  // Fronten byggs aldrig djupare än så här
+
+    private final int size;                        // Brädets storlek
+    private final byte[] tiles;                    // Kopia av startläget
+    private final Supplier<Heuristic> heuristics;  // Skapar en heuristik per tråd
+    private final int threads;                     // Antal trådar i poolen
+
+    private final AtomicLong nodes = new AtomicLong(); // Antal besökta noder i senaste sökningen
+    private long nodeLimit = Long.MAX_VALUE;          // Max antal noder innan sökningen ger upp
+
+    // Skapar en parallell lösare med Manhattan-avstånd och linjära konflikter
+    public ParallelSolver(Board board, int threads) {
+        this(board, () -> new ManhattanHeuristic(board.size()), threads);
+    }
+
+    // Skapar en parallell lösare med valfri heuristik (brädet kopieras, originalet ändras aldrig)
+    public ParallelSolver(Board board, Supplier<Heuristic> heuristics, int threads) {
+        this.size = board.size();
+        this.tiles = Solver.snapshot(board);
+        this.heuristics = heuristics;
+        this.threads = Math.max(1, threads);
+    }
+
+    // Sätter hur många noder sökningen får besöka (alla trådar) innan den ger upp.
+    // Gränsen kollas efter varje delträd, så den kan överskridas med storleken på ett delträd.
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    // Hämtar antal noder som besöktes i senaste sökningen (alla trådar)
+    public long getNodes() {
+        return this.nodes.get();
+    }
+
+    // solve – returnerar en kortaste lista med drag till målläget, eller null om nodgränsen nåddes
+    public List<Move> solve() {
+        this.nodes.set(0L);
+
+        // Bygger fronten; hittas målet redan där är det den kortaste lösningen
+        Frontier frontier = new Frontier(this.size, this.tiles, this.threads * TASKS_PER_THREAD);
+        if (frontier.solution != null) {
+            return frontier.solution;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            ThreadLocal<Solver> workers = ThreadLocal.withInitial(
+                    () -> new Solver(this.size, this.tiles, this.heuristics.get()));
+            int bound = this.heuristics.get().reset(this.tiles.clone());
+
+            while (true) {
+                AtomicBoolean found = new AtomicBoolean();                   // Stoppar alla trådar
+                AtomicInteger nextBound = new AtomicInteger(Integer.MAX_VALUE); // Minsta f över gränsen
+                AtomicReference<List<Move>> solution = new AtomicReference<>();
+
+                pool.invoke(new SubtreeTask(frontier, 0, frontier.paths.size(), bound,
+                        workers, found, nextBound, solution));
+
+                if (solution.get() != null) {
+                    return solution.get();
+                }
+                if (this.nodes.get() > this.nodeLimit) {
+                    return null;
+                }
+                if (nextBound.get() == Integer.MAX_VALUE) {
+                    return null; // Inga fler noder att söka (ska inte hända för lösbara bräden)
+                }
+                bound = nextBound.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // SubtreeTask – delar upp fronten i halvor tills varje uppgift är ett enda delträd
+    private final class SubtreeTask extends RecursiveAction {
+
+        private final Frontier frontier;
+        private final int from;
+        private final int to;
+        private final int bound;
+        private final ThreadLocal<Solver> workers;
+        private final AtomicBoolean found;
+        private final AtomicInteger nextBound;
+        private final AtomicReference<List<Move>> solution;
+
+        SubtreeTask(Frontier frontier, int from, int to, int bound, ThreadLocal<Solver> workers,
+                    AtomicBoolean found, AtomicInteger nextBound, AtomicReference<List<Move>> solution) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.bound = bound;
+            this.workers = workers;
+            this.found = found;
+            this.nextBound = nextBound;
+            this.solution = solution;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new SubtreeTask(this.frontier, this.from, mid, this.bound, this.workers, this.found, this.nextBound, this.solution),
+                        new SubtreeTask(this.frontier, mid, this.to, this.bound, this.workers, this.found, this.nextBound, this.solution));
+                return;
+            }
+            if (this.found.get()) {
+                return; // En annan tråd har redan hittat lösningen
+            }
+
+            Solver worker = this.workers.get();
+            int t = worker.searchSubtree(this.frontier.paths.get(this.from), this.frontier.depth, this.bound, this.found);
+            if (nodes.addAndGet(worker.getNodes()) > nodeLimit) {
+                this.found.set(true); // Nodgränsen är nådd: stoppar alla trådar utan lösning
+            }
+
+            if (t == Solver.FOUND) {
+                if (!worker.wasAborted() && this.solution.compareAndSet(null, worker.buildMoves())) {
+                    this.found.set(true);
+                }
+            } else {
+                this.nextBound.accumulateAndGet(t, Math::min);
+            }
+        }
+    }
+
+    // Frontier – alla vägar (utan att gå direkt tillbaka) till ett fast djup från roten
+    private static final class Frontier {
+
+        final List<int[]> paths = new ArrayList<>(); // Rutorna den tomma rutan flyttas till, en per väg
+        int depth;                                   // Djupet som fronten byggdes till
+        List<Move> solution;                         // Satt om målet låg inom djupet
+
+        Frontier(int size, byte[] start, int target) {
+            // Ökar djupet tills det finns tillräckligt många delträd
+            for (this.depth = 1; this.depth <= MAX_SPLIT_DEPTH; ++this.depth) {
+                this.paths.clear();
+                byte[] tiles = start.clone();
+                int[] path = new int[this.depth];
+                int blank = indexOfBlank(tiles);
+
+                this.solution = this.expand(size, tiles, blank, -1, 0, path, blank);
+                if (this.solution != null || this.paths.size() >= target) {
+                    return;
+                }
+            }
+            --this.depth;
+        }
+
+        // expand – djupet-först till this.depth, returnerar en lösning om målet nås tidigare
+        private List<Move> expand(int size, byte[] tiles, int blank, int previous, int g, int[] path, int startBlank) {
+            if (isGoal(tiles)) {
+                // Alla kortare vägar har redan provats på lägre djup, så den här är kortast
+                List<Move> moves = new ArrayList<>(g);
+                int empty = startBlank;
+                for (int i = 0; i < g; ++i) {
+                    moves.add(new Move(path[i] / size, path[i] % size, empty / size, empty % size));
+                    empty = path[i];
+                }
+                return moves;
+            }
+            if (g == this.depth) {
+                this.paths.add(path.clone());
+                return null;
+            }
+
+            int row = blank / size;
+            int col = blank % size;
+            int[] next = {
+                    row > 0 ? blank - size : -1,
+                    row < size - 1 ? blank + size : -1,
+                    col > 0 ? blank - 1 : -1,
+                    col < size - 1 ? blank + 1 : -1
+            };
+
+            for (int nb : next) {
+                if (nb < 0 || nb == previous) {
+                    continue;
+                }
+                tiles[blank] = tiles[nb];
+                tiles[nb] = 0;
+                path[g] = nb;
+
+                List<Move> result = this.expand(size, tiles, nb, blank, g + 1, path, startBlank);
+
+                tiles[nb] = tiles[blank];
+                tiles[blank] = 0;
+                if (result != null) {
+                    return result;
+                }
+            }
+            return null;
+        }
+
+        private static int indexOfBlank(byte[] tiles) {
+            for (int i = 0; i < tiles.length; ++i) {
+                if (tiles[i] == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isGoal(byte[] tiles) {
+            for (int i = 0; i < tiles.length - 1; ++i) {
+                if ((tiles[i] & 0xFF) != i + 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // main – mäter uppsnabbningen mot en enkeltrådad Solver för olika antal trådar:
+    // java ParallelSolver [storlek] [antal bräden] [blandningssteg]
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+
+        // Samma blandade bräden för alla mätningar
+        List<Board> boards = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            Board board = new Board(size);
+            board.shuffle(steps, new Random(i));
+            boards.add(board);
+        }
+
+        Supplier<Heuristic> heuristics = () -> Heuristic.forSize(size);
+        System.out.println("Heuristik: " + (PatternDatabase.forSize(size) != null ? "mönsterdatabas"
+                : WalkingDistance.forSize(size) != null ? "walking distance" : "Manhattan + linjära konflikter"));
+
+        // Enkeltrådad referens
+        long start = System.nanoTime();
+        for (Board board : boards) {
+            new Solver(board, heuristics.get()).solve();
+        }
+        long single = System.nanoTime() - start;
+        System.out.printf("Enkeltrådad Solver: %d ms%n", single / 1_000_000L);
+
+        // Dubblar antalet trådar upp till antalet kärnor
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            start = System.nanoTime();
+            for (Board board : boards) {
+                new ParallelSolver(board, heuristics, threads).solve();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%2d trådar: %8d ms   uppsnabbning %.2fx%n",
+                    threads, elapsed / 1_000_000L, (double) single / elapsed);
+
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
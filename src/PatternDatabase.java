@@ -0,0 +1,420 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+// Klassen PatternDatabase är en additiv, disjunkt mönsterdatabas för lösaren.
+// Brickorna delas upp i grupper (t.ex. 6-6-3 för 4x4). För varje grupp räknas i förväg ut hur många
+// drag av gruppens egna brickor som minst behövs för att få dem på plats, för alla placeringar.
+// Eftersom grupperna inte delar brickor kan värdena summeras och ändå aldrig bli för höga.
+// Tabellerna räknas ut en gång (main) och sparas i en fil i spelets datamapp som sedan minnesmappas vid start.
+// Tillstånden under uträkningen numreras med int, så en grupp får ha högst cells! / (cells - k)! * cells < 2^31
+// tillstånd: på 4x4 högst 7 brickor per grupp (6-6-3 och 7-7-1 går, 7-8 gör det inte).
+public final class PatternDatabase {
+
+    private static final int MAGIC = 0x50444231;  // "PDB1" – känns igen i början av filen
+    private static final int NONE = 0xFF;         // Markerar en placering som ännu inte nåtts
+
+    private final int size;          // Brädets storlek
+    private final int[][] patterns;  // Brickorna i varje grupp
+    private final int[] offsets;     // Var varje grupps tabell börjar i bufferten
+    private final MappedByteBuffer buffer; // Den minnesmappade filen
+
+    private static final PatternDatabase[] LOADED = new PatternDatabase[17]; // Redan inlästa databaser per storlek
+
+    private PatternDatabase(int size, int[][] patterns, int[] offsets, MappedByteBuffer buffer) {
+        this.size = size;
+        this.patterns = patterns;
+        this.offsets = offsets;
+        this.buffer = buffer;
+    }
+
+    // fileFor – filen där databasen för en viss storlek sparas (i samma mapp som highscore och sparade spel)
+    public static File fileFor(int size) {
+        return new File(Highscore.DIR, "PatternDatabase-" + size + ".bin");
+    }
+
+    // defaultPartition – standarduppdelningen av brickorna för en storlek
+    public static int[] defaultPartition(int size) {
+        switch (size) {
+            case 2: return new int[]{3};
+            case 3: return new int[]{4, 4};
+            case 4: return new int[]{6, 6, 3};
+            case 5: return new int[]{5, 5, 5, 5, 4};
+            default: throw new IllegalArgumentException("Ingen standarduppdelning för " + size + "x" + size);
+        }
+    }
+
+    // forSize – hämtar databasen för en storlek om filen finns, annars null
+    public static synchronized PatternDatabase forSize(int size) {
+        if (size < 2 || size >= LOADED.length) {
+            return null;
+        }
+        if (LOADED[size] == null) {
+            File file = fileFor(size);
+            if (!file.exists()) {
+                return null;
+            }
+            try {
+                LOADED[size] = load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        return LOADED[size];
+    }
+
+    // load – minnesmappar en färdig databasfil (inga tabeller byggs om)
+    public static PatternDatabase load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Inte en mönsterdatabas: " + file);
+            }
+            int size = buffer.getInt(4);
+            int count = buffer.getInt(8);
+            int position = 12;
+
+            // Läser vilka brickor som hör till varje grupp
+            int[][] patterns = new int[count][];
+            for (int p = 0; p < count; ++p) {
+                int k = buffer.getInt(position);
+                position += 4;
+                patterns[p] = new int[k];
+                for (int i = 0; i < k; ++i) {
+                    patterns[p][i] = buffer.getInt(position);
+                    position += 4;
+                }
+            }
+
+            // Tabellerna ligger direkt efter varandra efter huvudet
+            int cells = size * size;
+            int[] offsets = new int[count];
+            for (int p = 0; p < count; ++p) {
+                offsets[p] = position;
+                position += (int) tableSize(cells, patterns[p].length);
+            }
+            if (position != buffer.capacity()) {
+                throw new IllegalArgumentException("Fel längd på mönsterdatabasen: " + file);
+            }
+
+            return new PatternDatabase(size, patterns, offsets, buffer);
+        }
+    }
+
+    // size – brädstorleken som databasen gäller för
+    public int size() {
+        return this.size;
+    }
+
+    // newHeuristic – skapar ett eget sök-tillstånd (en per sökning/tråd) som läser ur tabellerna
+    public Heuristic newHeuristic() {
+        return new Lookup();
+    }
+
+    // Lookup följer var gruppernas brickor står och slår upp summan i tabellerna
+    private final class Lookup implements Heuristic {
+
+        private final int[] patternOf = new int[size * size]; // Vilken grupp varje bricka hör till (-1 = ingen)
+        private final int[] slotOf = new int[size * size];    // Brickans plats i sin grupp
+        private final int[][] positions;                      // Var varje grupps brickor står just nu
+        private final int[] values;                           // Nuvarande tabellvärde för varje grupp
+        private int total;                                    // Summan av values
+
+        Lookup() {
+            Arrays.fill(this.patternOf, -1);
+            this.positions = new int[patterns.length][];
+            this.values = new int[patterns.length];
+            for (int p = 0; p < patterns.length; ++p) {
+                this.positions[p] = new int[patterns[p].length];
+                for (int i = 0; i < patterns[p].length; ++i) {
+                    this.patternOf[patterns[p][i]] = p;
+                    this.slotOf[patterns[p][i]] = i;
+                }
+            }
+        }
+
+        @Override
+        public int reset(byte[] tiles) {
+            for (int pos = 0; pos < tiles.length; ++pos) {
+                int tile = tiles[pos] & 0xFF;
+                if (tile != 0 && this.patternOf[tile] >= 0) {
+                    this.positions[this.patternOf[tile]][this.slotOf[tile]] = pos;
+                }
+            }
+
+            this.total = 0;
+            for (int p = 0; p < patterns.length; ++p) {
+                this.values[p] = buffer.get(offsets[p] + (int) rank(this.positions[p], size * size)) & 0xFF;
+                this.total += this.values[p];
+            }
+            return this.total;
+        }
+
+        @Override
+        public int apply(byte[] tiles, int tile, int from, int to) {
+            int p = this.patternOf[tile];
+            if (p < 0) {
+                return this.total;
+            }
+
+            // Bara gruppen som brickan hör till behöver slås upp igen
+            this.positions[p][this.slotOf[tile]] = to;
+            int value = buffer.get(offsets[p] + (int) rank(this.positions[p], size * size)) & 0xFF;
+            this.total += value - this.values[p];
+            this.values[p] = value;
+            return this.total;
+        }
+    }
+
+    // tableSize – antal sätt att placera k olika brickor på cells rutor (cells! / (cells - k)!)
+    static long tableSize(int cells, int k) {
+        long count = 1L;
+        for (int i = 0; i < k; ++i) {
+            count *= cells - i;
+        }
+        return count;
+    }
+
+    // rank – gör om brickornas positioner till ett unikt tabellindex (blandad bas cells, cells-1, ...)
+    static long rank(int[] positions, int cells) {
+        long used = 0L;   // Rutor som redan tagits av tidigare brickor i gruppen
+        long rank = 0L;
+        for (int i = 0; i < positions.length; ++i) {
+            int pos = positions[i];
+            int digit = pos - Long.bitCount(used & ((1L << pos) - 1)); // Platsnummer bland de lediga rutorna
+            rank = rank * (cells - i) + digit;
+            used |= 1L << pos;
+        }
+        return rank;
+    }
+
+    // unrank – motsatsen till rank: fyller positions utifrån ett tabellindex
+    static void unrank(long rank, int[] positions, int cells) {
+        int k = positions.length;
+
+        // Plockar ut siffrorna bakifrån
+        for (int i = k - 1; i >= 0; --i) {
+            long base = cells - i;
+            positions[i] = (int) (rank % base);
+            rank /= base;
+        }
+
+        // Gör om varje siffra till den n:te lediga rutan
+        long used = 0L;
+        for (int i = 0; i < k; ++i) {
+            int digit = positions[i];
+            int pos = 0;
+            while (true) {
+                if ((used & (1L << pos)) == 0 && digit-- == 0) {
+                    break;
+                }
+                ++pos;
+            }
+            positions[i] = pos;
+            used |= 1L << pos;
+        }
+    }
+
+    // generate – räknar ut alla tabeller för en uppdelning och skriver dem till fil (görs en gång, offline)
+    public static void generate(int size, int[] partition, File file) throws IOException {
+        int cells = size * size;
+        if (cells > 64) {
+            throw new IllegalArgumentException("Mönsterdatabaser stöds upp till 8x8");
+        }
+
+        // Delar upp brickorna 1, 2, 3 ... i grupper i ordning
+        int[][] patterns = new int[partition.length][];
+        int tile = 1;
+        for (int p = 0; p < partition.length; ++p) {
+            patterns[p] = new int[partition[p]];
+            for (int i = 0; i < partition[p]; ++i) {
+                patterns[p][i] = tile++;
+            }
+        }
+        if (tile != cells) {
+            throw new IllegalArgumentException("Uppdelningen måste täcka alla " + (cells - 1) + " brickor");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(patterns.length);
+            for (int[] pattern : patterns) {
+                out.writeInt(pattern.length);
+                for (int t : pattern) {
+                    out.writeInt(t);
+                }
+            }
+            for (int[] pattern : patterns) {
+                out.write(buildTable(size, pattern));
+            }
+        }
+    }
+
+    // buildTable – bredden-först-sökning bakåt från målläget för en grupp brickor.
+    // Ett tillstånd är gruppens positioner plus den tomma rutan. Att flytta en annan bricka kostar 0,
+    // att flytta en av gruppens brickor kostar 1, så bara gruppens egna drag räknas (det gör summan tillåten).
+    private static byte[] buildTable(int size, int[] pattern) {
+        int cells = size * size;
+        int k = pattern.length;
+        long ranks = tableSize(cells, k);
+        if (ranks * cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Gruppen med " + k + " brickor är för stor för " + size + "x" + size
+                    + " (tillstånden numreras med int, använd mindre grupper, t.ex. 6-6-3)");
+        }
+
+        byte[] table = new byte[(int) ranks];
+        Arrays.fill(table, (byte) NONE);
+        long[] seen = new long[(int) ((ranks * cells + 63) >>> 6)]; // En bit per (placering, tom ruta)
+
+        int[] positions = new int[k];
+        int[] next = new int[k];
+        for (int i = 0; i < k; ++i) {
+            positions[i] = pattern[i] - 1;  // Samma mål som Board.initSolved
+        }
+
+        IntQueue current = new IntQueue();
+        IntQueue following = new IntQueue();
+        int start = (int) rank(positions, cells) * cells + (cells - 1);
+        setBit(seen, start);
+        current.add(start);
+
+        for (int level = 0; !current.isEmpty(); ++level) {
+            while (!current.isEmpty()) {
+                int state = current.poll();
+                int rank = state / cells;
+                int blank = state % cells;
+                if ((table[rank] & 0xFF) == NONE) {
+                    table[rank] = (byte) level;  // Första gången placeringen nås är den billigaste
+                }
+
+                unrank(rank, positions, cells);
+                int row = blank / size;
+                int col = blank % size;
+
+                for (int dir = 0; dir < 4; ++dir) {
+                    int nb;
+                    if (dir == 0 && row > 0) nb = blank - size;
+                    else if (dir == 1 && row < size - 1) nb = blank + size;
+                    else if (dir == 2 && col > 0) nb = blank - 1;
+                    else if (dir == 3 && col < size - 1) nb = blank + 1;
+                    else continue;
+
+                    int slot = -1;
+                    for (int i = 0; i < k; ++i) {
+                        if (positions[i] == nb) {
+                            slot = i;
+                            break;
+                        }
+                    }
+
+                    if (slot < 0) {
+                        // En bricka utanför gruppen flyttas: samma kostnad, samma nivå
+                        int target = rank * cells + nb;
+                        if (!getBit(seen, target)) {
+                            setBit(seen, target);
+                            current.add(target);
+                        }
+                    } else {
+                        // En av gruppens brickor flyttas in i den tomma rutan: ett drag till
+                        System.arraycopy(positions, 0, next, 0, k);
+                        next[slot] = blank;
+                        int target = (int) rank(next, cells) * cells + nb;
+                        if (!getBit(seen, target)) {
+                            following.add(target);
+                        }
+                    }
+                }
+            }
+
+            // Nästa nivå: hoppar över tillstånd som redan nåtts billigare och dubbletter
+            current.clear();
+            while (!following.isEmpty()) {
+                int state = following.poll();
+                if (!getBit(seen, state)) {
+                    setBit(seen, state);
+                    current.add(state);
+                }
+            }
+            following.clear();
+        }
+
+        return table;
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    // IntQueue – enkel kö av int som växer vid behov (ingen boxning till Integer)
+    private static final class IntQueue {
+        private int[] items = new int[1024];
+        private int head;
+        private int tail;
+
+        void add(int value) {
+            if (this.tail == this.items.length) {
+                if (this.head > this.items.length / 2) {
+                    // Flyttar ner innehållet istället för att växa
+                    System.arraycopy(this.items, this.head, this.items, 0, this.tail - this.head);
+                    this.tail -= this.head;
+                    this.head = 0;
+                } else {
+                    this.items = Arrays.copyOf(this.items, this.items.length * 2);
+                }
+            }
+            this.items[this.tail++] = value;
+        }
+
+        int poll() {
+            return this.items[this.head++];
+        }
+
+        boolean isEmpty() {
+            return this.head == this.tail;
+        }
+
+        void clear() {
+            this.head = 0;
+            this.tail = 0;
+        }
+    }
+
+    // main – genererar databasen offline: java PatternDatabase <storlek> [uppdelning, t.ex. 6-6-3]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Användning: java PatternDatabase <storlek> [uppdelning, t.ex. 6-6-3]");
+            return;
+        }
+
+        int size = Integer.parseInt(args[0]);
+        int[] partition;
+        if (args.length > 1) {
+            String[] parts = args[1].split("-");
+            partition = new int[parts.length];
+            for (int i = 0; i < parts.length; ++i) {
+                partition[i] = Integer.parseInt(parts[i]);
+            }
+        } else {
+            partition = defaultPartition(size);
+        }
+
+        File file = fileFor(size);
+        long start = System.currentTimeMillis();
+        generate(size, partition, file);
+        System.out.printf("Skrev %s (%d byte) på %d ms%n", file, file.length(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.SplittableRandom;
+
+// Klassen RandomPolicy flyttar den tomma rutan åt ett slumpmässigt håll.
+// Den går aldrig direkt tillbaka (det skulle bara ta ut det förra draget).
+public final class RandomPolicy implements MovePolicy {
+
+    private final int[] valid = new int[4]; // Giltiga riktningar för det aktuella draget
+    private SplittableRandom random;
+    private int previous = -1;              // Förra riktningen (-1 före första draget)
+
+    @Override
+    public void reset(Board board, long seed) {
+        this.random = new SplittableRandom(seed);
+        this.previous = -1;
+    }
+
+    @Override
+    public int next(Board board) {
+        int n = board.size();
+        int row = board.getEmptyRow();
+        int col = board.getEmptyCol();
+
+        int count = 0;
+        if (row > 0 && this.previous != MoveHistory.DOWN) this.valid[count++] = MoveHistory.UP;
+        if (row < n - 1 && this.previous != MoveHistory.UP) this.valid[count++] = MoveHistory.DOWN;
+        if (col > 0 && this.previous != MoveHistory.RIGHT) this.valid[count++] = MoveHistory.LEFT;
+        if (col < n - 1 && this.previous != MoveHistory.LEFT) this.valid[count++] = MoveHistory.RIGHT;
+
+        this.previous = this.valid[this.random.nextInt(count)];
+        return this.previous;
+    }
+}
@@ -0,0 +1,69 @@
+// Klassen Replay är ett inspelat spel: brädstorlek, startställning (ett frö eller rutorna) och alla steg
+// som den tomma rutan tog, 2 bitar per steg (MoveHistory.UP, DOWN, LEFT, RIGHT). Ångra och gör om
+// spelas in som vanliga steg åt motsatt håll, så uppspelningen visar exakt vad spelaren såg.
+public final class Replay {
+
+    private final int size;        // Brädets storlek
+    private final long seed;       // Fröet till shuffleUniform (används om start är null)
+    private final int[] start;     // Startställningen ruta för ruta, eller null om den kommer från fröet
+    private final long durationMs; // Tid från start till sista steget
+    private final int moveCount;   // Antal steg
+    private final long[] moves;    // Stegen, 32 per long med första steget i de lägsta bitarna
+
+    // Skapar ett inspelat spel (moves ägs sedan av objektet och får inte ändras)
+    public Replay(int size, long seed, int[] start, long durationMs, int moveCount, long[] moves) {
+        this.size = size;
+        this.seed = seed;
+        this.start = start;
+        this.durationMs = durationMs;
+        this.moveCount = moveCount;
+        this.moves = moves;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long seed() {
+        return this.seed;
+    }
+
+    // isSeeded – true om startställningen återskapas med shuffleUniform(seed())
+    public boolean isSeeded() {
+        return this.start == null;
+    }
+
+    // startCells – startställningen ruta för ruta, eller null om den kommer från fröet
+    int[] startCells() {
+        return this.start;
+    }
+
+    public long durationMs() {
+        return this.durationMs;
+    }
+
+    public int moveCount() {
+        return this.moveCount;
+    }
+
+    // direction – riktningen för steg nummer index
+    public int direction(int index) {
+        return (int) (this.moves[index >>> 5] >>> ((index & 31) << 1)) & 3;
+    }
+
+    // packedMoves – stegen som de lagras (32 per long)
+    long[] packedMoves() {
+        return this.moves;
+    }
+
+    // newBoard – skapar ett bräde i startställningen
+    public Board newBoard() {
+        Board board = new Board(this.size);
+        if (this.start == null) {
+            board.shuffleUniform(this.seed);
+        } else {
+            board.setCells(this.start);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Klassen ReplayArchive läser och skriver arkivfilen med inspelade spel (Replays.bin).
+// Filen börjar med MAGIC och sedan kommer posterna efter varandra:
+//   byte    storlek
+//   byte    flaggor (FLAG_CELLS: startställningen följer, annars återskapas den från fröet)
+//   long    frö
+//   varint  speltid i ms
+//   varint  antal steg
+//   [startställningen om FLAG_CELLS: storlek² värden, en byte per ruta upp till 16x16, annars två]
+//   stegen, 2 bitar per steg (4 per byte, första steget i de lägsta bitarna)
+// Ett vanligt 4x4-spel på 100 drag tar alltså cirka 40 byte. En halvskriven post sist i filen
+// (t.ex. efter ett avbrott) hoppas över när filen läses och kapas bort innan nästa post läggs till.
+public final class ReplayArchive {
+
+    public static final File FILE = new File(Highscore.DIR, "Replays.bin"); // Spelets arkiv
+
+    static final int MAGIC = 0x52504C31;     // "RPL1" – känns igen i början av filen
+    static final int FLAG_CELLS = 1;         // Startställningen är sparad ruta för ruta
+    private static final int MAX_HEADER = 1 + 1 + 8 + 10 + 5; // Största möjliga huvud för en post
+    private static final long WINDOW = 64L << 20;             // Så mycket av filen mappas åt gången
+
+    // Filens längd efter senaste append per fil: stämmer den när nästa append görs behöver filen inte gås igenom
+    private static final Map<String, Long> CHECKED_END = new ConcurrentHashMap<>();
+
+    private ReplayArchive() {
+    }
+
+    // encode – skriver en post för ett inspelat spel
+    static byte[] encode(Replay replay) {
+        int cells = replay.size() * replay.size() * cellBytes(replay.size());
+        int moveBytes = (replay.moveCount() + 3) >>> 2;
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_HEADER + (replay.isSeeded() ? 0 : cells) + moveBytes);
+
+        buffer.put((byte) replay.size());
+        buffer.put((byte) (replay.isSeeded() ? 0 : FLAG_CELLS));
+        buffer.putLong(replay.seed());
+        putVarLong(buffer, replay.durationMs());
+        putVarLong(buffer, replay.moveCount());
+        if (!replay.isSeeded()) {
+            for (int value : replay.startCells()) {
+                if (cellBytes(replay.size()) == 1) {
+                    buffer.put((byte) value);
+                } else {
+                    buffer.putShort((short) value);
+                }
+            }
+        }
+
+        // Stegen ligger redan packade 32 per long i samma bitordning, så de kopieras en byte i taget
+        long[] packed = replay.packedMoves();
+        for (int i = 0; i < moveBytes; ++i) {
+            buffer.put((byte) (packed[i >>> 3] >>> ((i & 7) << 3)));
+        }
+
+        byte[] record = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(record);
+        return record;
+    }
+
+    // append – lägger till poster sist i en arkivfil (skapar filen med MAGIC om den saknas).
+    // En halvskriven post sist i filen (t.ex. om programmet dödades mitt i en skrivning) kapas bort först,
+    // annars skulle alla spel som läggs till efter den bli oläsbara.
+    static void append(File file, byte[][] records, int count) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            Long known = CHECKED_END.get(file.getAbsolutePath());
+            if (known == null || known != end) {
+                end = completeEnd(file, end);
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                }
+            }
+
+            channel.position(end);
+            if (end == 0L) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                header.putInt(0, MAGIC);
+                writeFully(channel, header);
+            }
+            for (int i = 0; i < count; ++i) {
+                writeFully(channel, ByteBuffer.wrap(records[i]));
+            }
+            CHECKED_END.put(file.getAbsolutePath(), channel.position());
+        }
+    }
+
+    // completeEnd – var den sista hela posten i filen slutar (0 om inte ens MAGIC finns).
+    // Går igenom hela filen, men görs bara första gången en fil används i en körning (se CHECKED_END).
+    private static long completeEnd(File file, long size) throws IOException {
+        if (size < 4) {
+            return 0L;
+        }
+        try (Reader reader = new Reader(file)) {
+            while (reader.next()) {
+                // Hoppar fram till nästa post
+            }
+            return reader.next;
+        }
+    }
+
+    // open – öppnar en arkivfil för läsning
+    public static Reader open(File file) throws IOException {
+        return new Reader(file);
+    }
+
+    // Reader – går igenom posterna i en arkivfil en i taget utan att skapa objekt per post.
+    // Filen mappas in i minnet i fönster, så även mycket stora arkiv läses snabbt.
+    public static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer window;  // Den mappade delen av filen
+        private long windowStart;         // Var i filen fönstret börjar
+
+        private long next;                // Var nästa post börjar
+        private int size;                 // Den aktuella postens fält
+        private int flags;
+        private long seed;
+        private long durationMs;
+        private int moveCount;
+        private int cellsAt;              // Startställningens position i fönstret (om FLAG_CELLS)
+        private int movesAt;              // Stegens position i fönstret
+        private int cursor;               // Läsposition i fönstret medan ett huvud tolkas
+
+        private Reader(File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.fileSize = this.channel.size();
+            if (this.fileSize < 4 || !this.map(0L, 4) || this.window.getInt(0) != MAGIC) {
+                this.channel.close();
+                throw new IOException("Inte en arkivfil: " + file);
+            }
+            this.next = 4L;
+        }
+
+        // next – går till nästa post, returnerar false när filen är slut (eller sista posten är halvskriven)
+        public boolean next() throws IOException {
+            long position = this.next;
+            if (position >= this.fileSize
+                    || !this.map(position, (int) Math.min(MAX_HEADER, this.fileSize - position))) {
+                return false;
+            }
+
+            int at = (int) (position - this.windowStart);
+            long moves;
+            try {
+                this.cursor = at;
+                this.size = this.window.get(this.cursor++) & 0xFF;
+                this.flags = this.window.get(this.cursor++) & 0xFF;
+                this.seed = this.window.getLong(this.cursor);
+                this.cursor += 8;
+                this.durationMs = this.getVarLong();
+                moves = this.getVarLong();
+            } catch (IndexOutOfBoundsException e) {
+                return false; // Huvudet tar slut i filen: halvskriven post
+            }
+            if (this.size < 2 || this.size > Board.MAX_SIZE || moves < 0 || moves > Integer.MAX_VALUE) {
+                return false; // Skadad post: resten av filen går inte att lita på
+            }
+            this.moveCount = (int) moves;
+
+            int headerLength = this.cursor - at;
+            int cells = (this.flags & FLAG_CELLS) != 0 ? this.size * this.size * cellBytes(this.size) : 0;
+            long length = (long) headerLength + cells + ((this.moveCount + 3L) >>> 2);
+            if (position + length > this.fileSize || length > Integer.MAX_VALUE || !this.map(position, (int) length)) {
+                return false;
+            }
+
+            at = (int) (position - this.windowStart);
+            this.cellsAt = at + headerLength;
+            this.movesAt = this.cellsAt + cells;
+            this.next = position + length;
+            return true;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public long seed() {
+            return this.seed;
+        }
+
+        public boolean isSeeded() {
+            return (this.flags & FLAG_CELLS) == 0;
+        }
+
+        public long durationMs() {
+            return this.durationMs;
+        }
+
+        public int moveCount() {
+            return this.moveCount;
+        }
+
+        // direction – riktningen för steg nummer index i den aktuella posten
+        public int direction(int index) {
+            return (this.window.get(this.movesAt + (index >>> 2)) >>> ((index & 3) << 1)) & 3;
+        }
+
+        // toReplay – kopierar den aktuella posten till ett Replay-objekt
+        public Replay toReplay() {
+            int[] start = null;
+            if (!this.isSeeded()) {
+                start = new int[this.size * this.size];
+                for (int i = 0; i < start.length; ++i) {
+                    start[i] = cellBytes(this.size) == 1
+                            ? this.window.get(this.cellsAt + i) & 0xFF
+                            : this.window.getShort(this.cellsAt + 2 * i) & 0xFFFF;
+                }
+            }
+            long[] moves = new long[(this.moveCount + 31) >>> 5];
+            int bytes = (this.moveCount + 3) >>> 2;
+            for (int i = 0; i < bytes; ++i) {
+                moves[i >>> 3] |= (long) (this.window.get(this.movesAt + i) & 0xFF) << ((i & 7) << 3);
+            }
+            return new Replay(this.size, this.seed, start, this.durationMs, this.moveCount, moves);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.window = null;
+            this.channel.close();
+        }
+
+        // map – ser till att [position, position + length) finns i det mappade fönstret
+        private boolean map(long position, int length) throws IOException {
+            if (position + length > this.fileSize) {
+                return false;
+            }
+            if (this.window != null && position >= this.windowStart
+                    && position + length <= this.windowStart + this.window.capacity()) {
+                return true;
+            }
+            long mapLength = Math.min(this.fileSize - position, Math.max(WINDOW, length));
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, mapLength);
+            this.windowStart = position;
+            return true;
+        }
+
+        // getVarLong – läser ett tal skrivet med putVarLong vid cursor, -1 om det är för långt
+        private long getVarLong() {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = this.window.get(this.cursor++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            return -1L;
+        }
+    }
+
+    // cellBytes – antal byte per ruta i en sparad startställning
+    private static int cellBytes(int size) {
+        return size <= 16 ? 1 : 2;
+    }
+
+    // putVarLong – skriver ett tal >= 0 med 7 bitar per byte (små tal tar en byte)
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0L) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // main – läser ett arkiv och skriver ut statistik, med "verify" spelas dessutom varje spel upp:
+    //   java ReplayArchive [fil] [verify]
+    public static void main(String[] args) throws IOException {
+        File file = args.length > 0 ? new File(args[0]) : FILE;
+        boolean verify = args.length > 1 && args[1].equals("verify");
+
+        long start = System.nanoTime();
+        long replays = 0L;
+        long moves = 0L;
+        long solved = 0L;
+        try (Reader reader = open(file)) {
+            while (reader.next()) {
+                ++replays;
+                moves += reader.moveCount();
+                if (verify && ReplayPlayer.fastForward(reader.toReplay()).isSolved()) {
+                    ++solved;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d spel, %d steg, %.1f byte per spel%n",
+                replays, moves, (double) file.length() / Math.max(1L, replays));
+        System.out.printf("Läst på %.2f s (%.0f spel/s)%n", seconds, replays / seconds);
+        if (verify) {
+            System.out.printf("Lösta när de spelats upp: %d%n", solved);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.concurrent.locks.LockSupport;
+
+// Klassen ReplayPlayer spelar upp ett inspelat spel på ett bräde, antingen så fort som möjligt
+// eller i samma takt som det spelades. Arkivet sparar bara hela speltiden, så i realtid
+// fördelas stegen jämnt över den tiden.
+public final class ReplayPlayer {
+
+    // Hur raden och kolumnen för den tomma rutan ändras för varje riktning (som i Board)
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
+
+    private final Replay replay;
+    private final Board board;  // Brädet som stegen spelas upp på
+    private int index;          // Nästa steg
+
+    // Skapar en uppspelning på ett nytt bräde i startställningen
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.board = replay.newBoard();
+    }
+
+    // getBoard – brädet som uppspelningen ändrar (t.ex. för att visa det i en BoardCanvas)
+    public Board getBoard() {
+        return this.board;
+    }
+
+    // hasNext – true om det finns fler steg
+    public boolean hasNext() {
+        return this.index < this.replay.moveCount();
+    }
+
+    // step – spelar upp nästa steg, returnerar false om inspelningen är slut eller steget är ogiltigt
+    public boolean step() {
+        if (!this.hasNext()) {
+            return false;
+        }
+        int dir = this.replay.direction(this.index++);
+        return this.board.move(this.board.getEmptyRow() + DR[dir], this.board.getEmptyCol() + DC[dir]);
+    }
+
+    // playAll – spelar upp alla steg som finns kvar så fort som möjligt
+    public void playAll() {
+        while (this.step()) {
+            // Inget att vänta på
+        }
+    }
+
+    // playRealTime – spelar upp resten i samma takt som spelet spelades (speed 2.0 = dubbelt så fort).
+    // Blockerar anropande tråd; körs inte i Swing-tråden.
+    public void playRealTime(double speed) {
+        int count = this.replay.moveCount();
+        long interval = count == 0 ? 0L : (long) (this.replay.durationMs() * 1_000_000L / speed / count);
+        long next = System.nanoTime();
+        while (this.hasNext()) {
+            next += interval;
+            long wait = next - System.nanoTime();
+            if (wait > 0L) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!this.step()) {
+                return;
+            }
+        }
+    }
+
+    // fastForward – spelar upp hela spelet så fort som möjligt och returnerar brädet i slutställningen
+    public static Board fastForward(Replay replay) {
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.playAll();
+        return player.getBoard();
+    }
+}
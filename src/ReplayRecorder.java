@@ -0,0 +1,114 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Klassen ReplayRecorder spelar in varje spel på ett Board till en arkivfil (se ReplayArchive).
+// Den lyssnar på brädet: varje steg (move, undo, redo) läggs till med 2 bitar i minnet utan att något skrivs,
+// och när ett nytt spel börjar (boardChanged) lämnas det färdiga spelet till en egen skrivtråd.
+// Swing-tråden väntar alltså aldrig på disken.
+public final class ReplayRecorder implements BoardListener {
+
+    private final File file;              // Arkivfilen
+    private final ExecutorService writer; // En enda tråd som skriver posterna i tur och ordning
+    private Board board;                  // Brädet som spelas in (null om inget)
+
+    private long seed;          // Startställningens frö (om seeded)
+    private int[] start;        // Startställningen ruta för ruta (om den inte kommer från ett frö)
+    private long startNanos;    // När spelet började
+    private long lastNanos;     // När senaste steget togs
+    private long[] moves = new long[16]; // Stegen, 32 per long (som i MoveHistory)
+    private int moveCount;      // Antal steg i det pågående spelet
+
+    // Skapar en inspelare som skriver till en arkivfil
+    public ReplayRecorder(File file) {
+        this.file = file;
+        this.writer = Executors.newSingleThreadExecutor((r) -> {
+            Thread thread = new Thread(r, "replay-writer");
+            thread.setDaemon(true); // Får inte hålla programmet vid liv
+            return thread;
+        });
+    }
+
+    // attach – börjar spela in ett bräde (ett tidigare bräde släpps och dess spel sparas)
+    public void attach(Board board) {
+        this.detach();
+        this.board = board;
+        board.addListener(this);
+        this.begin();
+    }
+
+    // detach – slutar spela in och sparar det pågående spelet
+    public void detach() {
+        if (this.board != null) {
+            this.finish();
+            this.board.removeListener(this);
+            this.board = null;
+        }
+    }
+
+    // close – sparar det pågående spelet och väntar tills allt är skrivet (anropas när programmet avslutas)
+    public void close() {
+        this.detach();
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void cellChanged(int row, int col) {
+        // Stegen spelas in i emptyMoved
+    }
+
+    @Override
+    public void emptyMoved(int direction) {
+        if (this.moveCount == this.moves.length * 32) {
+            this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+        }
+        int index = this.moveCount++;
+        this.moves[index >>> 5] |= (long) direction << ((index & 31) << 1);
+        this.lastNanos = System.nanoTime();
+    }
+
+    @Override
+    public void boardChanged() {
+        this.finish(); // Förra spelet är slut
+        this.begin();
+    }
+
+    // begin – börjar ett nytt spel från brädets nuvarande ställning
+    private void begin() {
+        this.seed = this.board.getSeed();
+        this.start = this.board.isSeeded() ? null : this.board.toArray();
+        this.startNanos = System.nanoTime();
+        this.lastNanos = this.startNanos;
+        this.moveCount = 0;
+    }
+
+    // finish – lämnar över det pågående spelet till skrivtråden (spel utan steg sparas inte)
+    private void finish() {
+        if (this.moveCount == 0) {
+            return;
+        }
+
+        long[] packed = Arrays.copyOf(this.moves, (this.moveCount + 31) >>> 5);
+        Replay replay = new Replay(this.board.size(), this.seed, this.start,
+                (this.lastNanos - this.startNanos) / 1_000_000L, this.moveCount, packed);
+        Arrays.fill(this.moves, 0, packed.length, 0L);
+        this.moveCount = 0;
+
+        this.writer.execute(() -> {
+            try {
+                ReplayArchive.append(this.file, new byte[][]{ReplayArchive.encode(replay)}, 1);
+            } catch (IOException e) {
+                // Om skrivningen misslyckas: skriv stacktrace till konsolen
+                e.printStackTrace();
+            }
+        });
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Klassen SavedGame sparar det pågående spelet så att det kan fortsätta nästa gång programmet startar.
+// Filen är liten och binär: ett huvud (storlek, drag, speltid), brädet bit-packat med så få bitar per ruta
+// som värdena kräver, och historiken för ångra/gör om som den ligger i MoveHistory (2 bitar per drag,
+// en skjuten rad som en post). Vid start läses hela filen med en läsning till en byte-array och tolkas direkt ur
+// den, så även ett spel med 100 000 drag i historiken återställs på några millisekunder. Filen minnesmappas inte:
+// en mappning släpps först när den städats bort, och så länge kan filen inte ersättas på Windows.
+// Skrivningen görs av en egen tråd och via en tillfällig fil, så filen är aldrig halvskriven och Swing-tråden
+// väntar aldrig på disken. Hinner flera sparningar köas skrivs bara den senaste.
+public final class SavedGame {
+
+    public static final File FILE = new File(Highscore.DIR, "SavedGame.bin"); // Det sparade spelet
+
+    // Hur många drag som får göras mellan sparningarna (kan ändras med -Dsave.every=...)
+    public static final int SAVE_EVERY = Math.max(1, Integer.getInteger("save.every", 20));
+
+    private static final int MAGIC = 0x53415633;  // "SAV3" – känns igen i början av filen
+    private static final int HEADER = 24;         // MAGIC, storlek, drag, bitar per ruta och speltiden
+
+    private static final byte[] DELETE = new byte[0]; // Köas istället för en fil när filen ska tas bort
+    private static final AtomicReference<byte[]> PENDING = new AtomicReference<>(); // Nästa fil att skriva
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, "save-writer");
+        thread.setDaemon(true); // Får inte hålla programmet vid liv
+        return thread;
+    });
+
+    private final int size;            // Brädets storlek
+    private final int[] values;        // Brädet ruta för ruta
+    private final int moves;           // Antal drag som gjorts
+    private final long elapsedNanos;   // Speltiden när spelet sparades
+    private final ByteBuffer history;  // Historiken, läses direkt ur filens byte
+
+    private SavedGame(int size, int[] values, int moves, long elapsedNanos, ByteBuffer history) {
+        this.size = size;
+        this.values = values;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+        this.history = history;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long elapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    // restore – ställer upp brädet som det var när spelet sparades (brädet måste ha rätt storlek)
+    public void restore(Board board) {
+        if (board.size() != this.size) {
+            throw new IllegalArgumentException("Sparat spel är " + this.size + "x" + this.size + ", brädet " + board.size());
+        }
+        board.restore(this.values, this.moves, this.history.duplicate());
+    }
+
+    // encode – gör om brädet och speltiden till filens innehåll (snabbt nog för Swing-tråden)
+    public static byte[] encode(Board board, long elapsedNanos) {
+        int n = board.size();
+        int bits = bitsFor(n * n);
+        long[] grid = pack(board.toArray(), bits);
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER + grid.length * 8 + board.historySize());
+        out.putInt(MAGIC);
+        out.putInt(n);
+        out.putInt(board.getMoves());
+        out.putInt(bits);
+        out.putLong(elapsedNanos);
+        for (long word : grid) {
+            out.putLong(word);
+        }
+        board.writeHistory(out);
+        return out.array();
+    }
+
+    // load – läser en sparad fil och brädet ur den
+    public static SavedGame load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Läser tills hela filen finns i minnet
+            }
+            buffer.flip();
+
+            if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Inte ett sparat spel: " + file);
+            }
+            int size = buffer.getInt(4);
+            int moves = buffer.getInt(8);
+            int bits = buffer.getInt(12);
+            long elapsedNanos = buffer.getLong(16);
+            if (size < 2 || size > Board.MAX_SIZE || bits != bitsFor(size * size)) {
+                throw new IllegalArgumentException("Trasigt sparat spel: " + file);
+            }
+
+            int words = (int) (((long) size * size * bits + 63) >>> 6);
+            if (buffer.limit() < HEADER + words * 8) {
+                throw new IllegalArgumentException("Fel längd på sparat spel: " + file);
+            }
+            long[] grid = new long[words];
+            buffer.position(HEADER);
+            buffer.asLongBuffer().get(grid);
+            buffer.position(HEADER + words * 8);
+
+            return new SavedGame(size, unpack(grid, size * size, bits), moves, elapsedNanos, buffer.slice());
+        }
+    }
+
+    // loadIfExists – läser det sparade spelet, eller null om det inte finns eller inte går att läsa
+    public static SavedGame loadIfExists() {
+        if (!FILE.exists()) {
+            return null;
+        }
+        try {
+            return load(FILE);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // saveLater – lämnar filens innehåll (från encode) till skrivtråden
+    public static void saveLater(byte[] data) {
+        queue(data);
+    }
+
+    // saveNow – som saveLater, men väntar tills filen är skriven (när programmet avslutas)
+    public static void saveNow(byte[] data) {
+        PENDING.set(data);
+        await(WRITER.submit(SavedGame::writePending));
+    }
+
+    // delete – tar bort det sparade spelet (t.ex. när spelet är löst) utan att vänta. Tas bort i tur och ordning
+    // med sparningarna, så en sparning som redan köats kan inte skriva tillbaka filen efteråt.
+    public static void delete() {
+        queue(DELETE);
+    }
+
+    // deleteNow – som delete, men väntar tills filen är borta (när programmet avslutas)
+    public static void deleteNow() {
+        saveNow(DELETE);
+    }
+
+    // queue – lägger det senaste innehållet (eller DELETE) i kön; skrivtråden startas bara om den inte redan väntar
+    private static void queue(byte[] data) {
+        if (PENDING.getAndSet(data) == null) {
+            WRITER.execute(SavedGame::writePending);
+        }
+    }
+
+    // await – väntar en stund på att skrivtråden blir klar (programmet ska ändå kunna avslutas)
+    private static void await(Future<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // writePending – skriver det senaste innehållet till en tillfällig fil och byter sedan ut filen i ett steg
+    private static void writePending() {
+        byte[] data = PENDING.getAndSet(null);
+        if (data == null) {
+            return; // Redan skrivet av en tidigare körning
+        }
+
+        Path target = FILE.toPath().toAbsolutePath();
+        Path temp = target.resolveSibling(FILE.getName() + ".tmp");
+        try {
+            if (data == DELETE) {
+                Files.deleteIfExists(target);
+                return;
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = ByteBuffer.wrap(data);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true); // Den nya filen måste ligga på disk innan den ersätter den gamla
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Om skrivningen misslyckas ligger den förra sparningen kvar orörd
+            e.printStackTrace();
+        }
+    }
+
+    // bitsFor – antal bitar som behövs för värdena 0 till cells - 1
+    private static int bitsFor(int cells) {
+        return 32 - Integer.numberOfLeadingZeros(cells - 1);
+    }
+
+    // pack – packar värdena med bits bitar var i long (ett värde kan ligga över gränsen mellan två long)
+    private static long[] pack(int[] values, int bits) {
+        long[] words = new long[(int) (((long) values.length * bits + 63) >>> 6)];
+        for (int i = 0; i < values.length; ++i) {
+            long bit = (long) i * bits;
+            int word = (int) (bit >>> 6);
+            int offset = (int) bit & 63;
+            words[word] |= (long) values[i] << offset;
+            if (offset + bits > 64) {
+                words[word + 1] |= (long) values[i] >>> (64 - offset);
+            }
+        }
+        return words;
+    }
+
+    // unpack – packar upp count värden som packats med pack
+    private static int[] unpack(long[] words, int count, int bits) {
+        int[] values = new int[count];
+        long mask = (1L << bits) - 1;
+        for (int i = 0; i < count; ++i) {
+            long bit = (long) i * bits;
+            int word = (int) (bit >>> 6);
+            int offset = (int) bit & 63;
+            long value = words[word] >>> offset;
+            if (offset + bits > 64) {
+                value |= words[word + 1] << (64 - offset);
+            }
+            values[i] = (int) (value & mask);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import javax.swing.SwingUtilities;
+
+// Klassen SearchService kör tunga beräkningar (lösaren, analyser) i bakgrundstrådar så att Swing-tråden
+// aldrig fryser. Varje jobb hör till ett bräde och avbryts automatiskt när brädet ändras, och det har en
+// tidsgräns. Framsteg och resultat skickas tillbaka till Swing-tråden med SwingUtilities.invokeLater;
+// ett avbrutet jobb meddelar ingenting. submit och cancel ska anropas från Swing-tråden.
+public final class SearchService {
+
+    // Work – själva beräkningen. Den körs i en bakgrundstråd och får inte röra brädet (kopiera det i förväg),
+    // men ska titta på job.isCancelled() (eller job.stopFlag()) och job.deadlineNanos() ibland.
+    public interface Work<T> {
+        T run(Job job);
+    }
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool((task) -> {
+        Thread thread = new Thread(task, "Sökning-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);                        // Håller inte programmet vid liv
+        thread.setPriority(Thread.NORM_PRIORITY - 1);  // Swing-tråden går före
+        return thread;
+    });
+
+    // Job – ett pågående jobb. Lyssnar på brädet och avbryts så fort det ändras.
+    public static final class Job implements BoardListener {
+
+        private final Board board;
+        private final long deadline;                         // System.nanoTime() då jobbet ska ge upp
+        private final AtomicBoolean stop = new AtomicBoolean(); // Sätts när jobbet avbryts
+        private final IntConsumer progress;                  // Körs i Swing-tråden (kan vara null)
+        private boolean finished;                            // Används bara från Swing-tråden
+
+        private Job(Board board, long deadline, IntConsumer progress) {
+            this.board = board;
+            this.deadline = deadline;
+            this.progress = progress;
+        }
+
+        // cancel – avbryter jobbet; varken framsteg eller resultat rapporteras efter detta
+        public void cancel() {
+            if (!this.finished) {
+                this.finished = true;
+                this.stop.set(true);
+                this.board.removeListener(this);
+            }
+        }
+
+        public boolean isCancelled() {
+            return this.stop.get();
+        }
+
+        // stopFlag – flaggan som sätts när jobbet avbryts (kan ges direkt till Solver.setCancel)
+        public AtomicBoolean stopFlag() {
+            return this.stop;
+        }
+
+        // deadlineNanos – tidpunkten (System.nanoTime()) då jobbet ska ge upp
+        public long deadlineNanos() {
+            return this.deadline;
+        }
+
+        // progress – rapporterar ett framsteg (anropas från bakgrundstråden)
+        public void progress(int value) {
+            if (this.progress != null && !this.isCancelled()) {
+                SwingUtilities.invokeLater(() -> {
+                    if (!this.finished) {
+                        this.progress.accept(value);
+                    }
+                });
+            }
+        }
+
+        // finish – avslutar jobbet i Swing-tråden, false om det redan avbrutits
+        private boolean finish() {
+            if (this.finished) {
+                return false;
+            }
+            this.finished = true;
+            this.board.removeListener(this);
+            return true;
+        }
+
+        @Override
+        public void cellChanged(int row, int col) {
+            this.cancel();
+        }
+
+        @Override
+        public void boardChanged() {
+            this.cancel();
+        }
+    }
+
+    // submit – startar ett jobb för brädet. done får resultatet i Swing-tråden (null om beräkningen gav upp
+    // eller kastade ett fel), men anropas inte alls om jobbet avbryts.
+    public <T> Job submit(Board board, long deadlineMs, Work<T> work, IntConsumer progress, Consumer<T> done) {
+        Job job = new Job(board, System.nanoTime() + deadlineMs * 1_000_000L, progress);
+        board.addListener(job);
+
+        this.executor.execute(() -> {
+            T result = null;
+            if (!job.isCancelled()) {
+                try {
+                    result = work.run(job);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+            T r = result;
+            SwingUtilities.invokeLater(() -> {
+                if (job.finish()) {
+                    done.accept(r);
+                }
+            });
+        });
+        return job;
+    }
+
+    // preload – kör en förberedelse (t.ex. att läsa in en tabell) i en bakgrundstråd, utan bräde eller resultat
+    public void preload(Runnable task) {
+        this.executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    // solve – söker en kortaste lösning för brädet i bakgrunden. progress får varje ny gräns (minsta antal
+    // drag som lösningen kan ha), done får lösningen eller null om nodgränsen eller tidsgränsen nåddes.
+    public Job solve(Board board, long deadlineMs, long nodeLimit, IntConsumer progress, Consumer<List<Move>> done) {
+        int size = board.size();
+        byte[] tiles = Solver.snapshot(board); // Kopieras här, i Swing-tråden
+
+        return this.submit(board, deadlineMs, (job) -> {
+            Solver solver = new Solver(size, tiles, Heuristic.forSize(size));
+            solver.setNodeLimit(nodeLimit);
+            solver.setCancel(job.stopFlag());
+            solver.setDeadline(job.deadlineNanos());
+            solver.setProgress(job::progress);
+            return solver.solve();
+        }, progress, done);
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.function.Supplier;
+
+// Klassen Simulator kör många spel utan grafik från kommandoraden och skriver ut statistik:
+//   java Simulator [strategi] [storlek] [antal spel] [max drag per spel] [trådar] [första frö]
+// Strategi är random, greedy eller solver. Trådar är som standard antalet kärnor.
+public final class Simulator {
+
+    private static final long SOLVER_NODE_LIMIT = 50_000_000L; // Max antal noder per lösning (solver)
+    private static final int HISTOGRAM_ROWS = 16;               // Antal rader i histogrammet
+    private static final int HISTOGRAM_WIDTH = 50;              // Längsta stapeln i tecken
+
+    private Simulator() {
+    }
+
+    public static void main(String[] args) {
+        String name = args.length > 0 ? args[0] : "greedy";
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long games = args.length > 2 ? Long.parseLong(args[2]) : 100_000L;
+        int maxMoves = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 5 ? Long.parseLong(args[5]) : 1L;
+
+        Supplier<MovePolicy> policies = policyFor(name);
+        if (policies == null) {
+            System.err.println("Okänd strategi: " + name + " (random, greedy eller solver)");
+            System.exit(2);
+            return;
+        }
+
+        System.out.printf("Strategi: %s, %dx%d, %d spel, max %d drag, %d trådar%n",
+                name, size, size, games, maxMoves, threads);
+
+        GameEngine engine = new GameEngine(size, policies, maxMoves, threads);
+        long start = System.nanoTime();
+        MoveStats stats = engine.run(games, firstSeed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        print(stats, seconds);
+    }
+
+    // policyFor – strategin för ett namn, eller null om namnet är okänt
+    private static Supplier<MovePolicy> policyFor(String name) {
+        if (name.equals("random")) {
+            return RandomPolicy::new;
+        } else if (name.equals("greedy")) {
+            return GreedyPolicy::new;
+        } else if (name.equals("solver")) {
+            return () -> new SolverPolicy(SOLVER_NODE_LIMIT);
+        }
+        return null;
+    }
+
+    // print – skriver ut takten, andelen lösta spel och fördelningen av antal drag
+    private static void print(MoveStats stats, double seconds) {
+        System.out.printf("Tid: %.2f s   %.0f spel/s   %.0f drag/s%n",
+                seconds, stats.getGames() / seconds, stats.getTotalMoves() / seconds);
+        System.out.printf("Lösta: %d av %d (%.2f %%)%n",
+                stats.getSolved(), stats.getGames(), 100.0 * stats.getSolved() / Math.max(1L, stats.getGames()));
+        if (stats.getSolved() == 0) {
+            return;
+        }
+
+        System.out.printf("Drag i lösta spel: min %d, medel %.1f, max %d%n",
+                stats.getMin(), stats.getMean(), stats.getMax());
+        System.out.printf("Percentiler: p10 %d, p25 %d, p50 %d, p75 %d, p90 %d, p99 %d, p99.9 %d%n",
+                stats.percentile(0.10), stats.percentile(0.25), stats.percentile(0.50), stats.percentile(0.75),
+                stats.percentile(0.90), stats.percentile(0.99), stats.percentile(0.999));
+
+        // Histogram med lika breda intervall mellan min och max
+        int min = stats.getMin();
+        int width = Math.max(1, (stats.getMax() - min) / HISTOGRAM_ROWS + 1);
+        long[] rows = new long[(stats.getMax() - min) / width + 1];
+        long highest = 1L;
+        for (int i = 0; i < rows.length; ++i) {
+            rows[i] = stats.countBetween(min + i * width, min + (i + 1) * width);
+            highest = Math.max(highest, rows[i]);
+        }
+        for (int i = 0; i < rows.length; ++i) {
+            int bar = (int) (rows[i] * HISTOGRAM_WIDTH / highest);
+            System.out.printf("%9d–%-9d %10d %s%n", min + i * width, min + (i + 1) * width - 1,
+                    rows[i], "#".repeat(bar));
+        }
+    }
+}
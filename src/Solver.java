@@ -0,0 +1,248 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+// Klassen Solver hittar en kortaste lösning för ett Board med IDA* (iterativ fördjupning med A*).
+// Sökningen jobbar på en enda kopia av brädet som ändras och återställs drag för drag,
+// och heuristiken uppdateras inkrementellt – inga bräden kopieras under sökningen.
+public final class Solver {
+
+    static final int FOUND = -1;                  // Returvärde när målläget har hittats
+    static final int MAX_SIZE = 16;               // Största storlek (varje värde måste få plats i en byte)
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final int size;           // Brädets storlek
+    private final byte[] startTiles;  // Startläget (ändras aldrig)
+    private final byte[] tiles;       // Brädet som sökningen ändrar i (index = rad * size + kolumn)
+    private final int[] neighbours;   // Grannrutor för varje ruta: neighbours[ruta * 4 + riktning], -1 om utanför
+    private final Heuristic heuristic; // Uppskattning av antal drag som återstår
+    private final int startBlank;     // Den tomma rutans position i startläget
+
+    private int blank;        // Den tomma rutans nuvarande position
+    private int[] path;       // Vilken ruta den tomma rutan flyttades till i varje drag
+    private int depth;        // Längden på den hittade lösningen
+    private long nodes;       // Antal besökta noder i senaste sökningen
+    private long nodeLimit = NO_LIMIT; // Max antal noder innan sökningen ger upp
+    private boolean aborted;  // true om sökningen avbröts av nodgränsen eller stoppflaggan
+    private AtomicBoolean stop; // Delad flagga som avbryter sökningen (används av ParallelSolver)
+    private AtomicBoolean cancel;   // Flagga som avbryter solve() utifrån (t.ex. från SearchService)
+    private long deadline;          // System.nanoTime() då solve() ger upp (om hasDeadline)
+    private boolean hasDeadline;
+    private IntConsumer progress;   // Får varje ny gräns för f under solve() (kan vara null)
+
+    // Skapar en lösare med Manhattan-avstånd och linjära konflikter
+    public Solver(Board board) {
+        this(board, new ManhattanHeuristic(board.size()));
+    }
+
+    // Skapar en lösare med valfri heuristik (brädet kopieras, originalet ändras aldrig)
+    public Solver(Board board, Heuristic heuristic) {
+        this(board.size(), snapshot(board), heuristic);
+    }
+
+    // Skapar en lösare direkt från ett kopierat bräde (tiles ändras aldrig)
+    Solver(int size, byte[] tiles, Heuristic heuristic) {
+        this.size = size;
+        this.heuristic = heuristic;
+        this.startTiles = tiles;
+        this.tiles = tiles.clone();
+
+        int cells = size * size;
+        int empty = 0;
+        for (int pos = 0; pos < cells; ++pos) {
+            if (tiles[pos] == 0) {
+                empty = pos;
+            }
+        }
+        this.startBlank = empty;
+
+        // Förberäknar grannarna (upp, ner, vänster, höger) så sökningen slipper gränskontroller
+        this.neighbours = new int[cells * 4];
+        for (int pos = 0; pos < cells; ++pos) {
+            int row = pos / this.size;
+            int col = pos % this.size;
+            this.neighbours[pos * 4] = row > 0 ? pos - this.size : -1;
+            this.neighbours[pos * 4 + 1] = row < this.size - 1 ? pos + this.size : -1;
+            this.neighbours[pos * 4 + 2] = col > 0 ? pos - 1 : -1;
+            this.neighbours[pos * 4 + 3] = col < this.size - 1 ? pos + 1 : -1;
+        }
+
+        this.path = new int[64];
+    }
+
+    // snapshot – kopierar brädet till en byte-array (index = rad * storlek + kolumn)
+    static byte[] snapshot(Board board) {
+        int size = board.size();
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Lösaren klarar högst " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        byte[] tiles = new byte[size * size];
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                tiles[row * size + col] = (byte) board.get(row, col).value();
+            }
+        }
+        return tiles;
+    }
+
+    // Sätter hur många noder sökningen får besöka innan den ger upp
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    // Sätter en flagga som avbryter solve() när den blir true (kollas var 1024:e nod)
+    public void setCancel(AtomicBoolean cancel) {
+        this.cancel = cancel;
+    }
+
+    // Sätter en tidpunkt (System.nanoTime()) då solve() ger upp
+    public void setDeadline(long deadlineNanos) {
+        this.deadline = deadlineNanos;
+        this.hasDeadline = true;
+    }
+
+    // Sätter vem som får veta varje gång solve() höjer gränsen (antal drag som minst behövs)
+    public void setProgress(IntConsumer progress) {
+        this.progress = progress;
+    }
+
+    // Hämtar antal noder som besöktes i senaste sökningen
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    // solve – returnerar en kortaste lista med drag till målläget, eller null om nodgränsen nåddes
+    public List<Move> solve() {
+        this.blank = this.startBlank;
+        this.nodes = 0L;
+        this.aborted = false;
+        this.stop = this.cancel;
+
+        int h = this.heuristic.reset(this.tiles);
+        int bound = h;
+
+        // Ökar gränsen för f = g + h tills en lösning hittas
+        while (true) {
+            if (this.progress != null) {
+                this.progress.accept(bound);
+            }
+            if (this.path.length <= bound) {
+                this.path = new int[bound * 2];
+            }
+
+            int t = this.search(0, h, bound, -1);
+            if (this.aborted) {
+                return null;
+            }
+            if (t == FOUND) {
+                return this.buildMoves();
+            }
+            bound = t;
+        }
+    }
+
+    // search – djupet-först-sökning begränsad av bound, returnerar FOUND eller minsta f som överskred gränsen
+    private int search(int g, int h, int bound, int previous) {
+        int f = g + h;
+        if (f > bound) {
+            return f;
+        }
+        if (h == 0) {              // Heuristiken är 0 bara i målläget
+            this.depth = g;
+            return FOUND;
+        }
+        if (++this.nodes > this.nodeLimit
+                || ((this.nodes & 0x3FF) == 0 && this.shouldStop())) {
+            this.aborted = true;
+            return FOUND;
+        }
+
+        int min = Integer.MAX_VALUE;
+        int from = this.blank;
+
+        for (int dir = 0; dir < 4; ++dir) {
+            int next = this.neighbours[from * 4 + dir];
+            if (next < 0 || next == previous) {   // Utanför brädet, eller direkt tillbaka dit vi kom ifrån
+                continue;
+            }
+
+            // Flyttar brickan på next till den tomma rutan
+            int tile = this.tiles[next];
+            this.tiles[from] = (byte) tile;
+            this.tiles[next] = 0;
+            this.blank = next;
+            this.path[g] = next;
+            int nextH = this.heuristic.apply(this.tiles, tile & 0xFF, next, from);
+
+            int t = this.search(g + 1, nextH, bound, from);
+
+            // Återställer brädet och heuristiken
+            this.tiles[next] = (byte) tile;
+            this.tiles[from] = 0;
+            this.blank = from;
+            this.heuristic.apply(this.tiles, tile & 0xFF, from, next);
+
+            if (t == FOUND) {
+                return FOUND;
+            }
+            if (t < min) {
+                min = t;
+            }
+        }
+
+        return min;
+    }
+
+    // shouldStop – true om stoppflaggan är satt eller tiden är ute
+    private boolean shouldStop() {
+        return (this.stop != null && this.stop.get())
+                || (this.hasDeadline && System.nanoTime() - this.deadline >= 0L);
+    }
+
+    // searchSubtree – söker under noden som nås med dragen prefix[0..length) med gränsen bound.
+    // Returnerar FOUND eller minsta f som överskred gränsen. Används av ParallelSolver.
+    int searchSubtree(int[] prefix, int length, int bound, AtomicBoolean stop) {
+        System.arraycopy(this.startTiles, 0, this.tiles, 0, this.tiles.length);
+        this.blank = this.startBlank;
+        this.nodes = 0L;
+        this.aborted = false;
+        this.stop = stop;
+
+        if (this.path.length <= Math.max(bound, length)) {
+            this.path = new int[Math.max(bound, length) * 2];
+        }
+
+        // Spelar upp vägen fram till delträdets rot
+        for (int i = 0; i < length; ++i) {
+            int next = prefix[i];
+            this.tiles[this.blank] = this.tiles[next];
+            this.tiles[next] = 0;
+            this.blank = next;
+            this.path[i] = next;
+        }
+
+        int previous = length == 0 ? -1 : length == 1 ? this.startBlank : prefix[length - 2];
+        int h = this.heuristic.reset(this.tiles);
+        return this.search(length, h, bound, previous);
+    }
+
+    // wasAborted – true om senaste sökningen avbröts innan den blev klar
+    boolean wasAborted() {
+        return this.aborted;
+    }
+
+    // buildMoves – gör om vägen till Move-objekt (brickan flyttas från sin ruta till den tomma rutan)
+    List<Move> buildMoves() {
+        List<Move> moves = new ArrayList<>(this.depth);
+        int empty = this.startBlank;
+
+        for (int i = 0; i < this.depth; ++i) {
+            int tile = this.path[i];
+            moves.add(new Move(tile / this.size, tile % this.size, empty / this.size, empty % this.size));
+            empty = tile;
+        }
+
+        return moves;
+    }
+}
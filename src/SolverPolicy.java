@@ -0,0 +1,49 @@
+import java.util.List;
+
+// Klassen SolverPolicy räknar fram en kortaste lösning med Solver i början av varje spel
+// och spelar sedan upp den. Avståndstabellen används om den har genererats för storleken, annars Heuristic.forSize.
+// Om lösaren når nodgränsen ger strategin upp spelet.
+public final class SolverPolicy implements MovePolicy {
+
+    private final long nodeLimit;  // Max antal noder per lösning
+    private List<Move> plan;       // Lösningen för det aktuella spelet (null om den inte hittades)
+    private int index;             // Nästa drag i plan
+
+    // Skapar en strategi med en nodgräns per spel
+    public SolverPolicy(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    @Override
+    public void reset(Board board, long seed) {
+        if (board.size() > Solver.MAX_SIZE) {
+            this.plan = null; // För stort för lösaren: ger upp direkt
+            return;
+        }
+
+        DistanceTable table = DistanceTable.forSize(board.size());
+        this.index = 0;
+        if (table != null) {
+            this.plan = table.solution(board); // Slås upp direkt, ingen sökning
+            return;
+        }
+
+        Solver solver = new Solver(board, Heuristic.forSize(board.size()));
+        solver.setNodeLimit(this.nodeLimit);
+        this.plan = solver.solve();
+    }
+
+    @Override
+    public int next(Board board) {
+        if (this.plan == null || this.index >= this.plan.size()) {
+            return -1;
+        }
+
+        // Draget flyttar brickan på (fromRow, fromCol) till den tomma rutan, dvs. den tomma rutan åt andra hållet
+        Move m = this.plan.get(this.index++);
+        if (m.fromRow < board.getEmptyRow()) return MoveHistory.UP;
+        if (m.fromRow > board.getEmptyRow()) return MoveHistory.DOWN;
+        if (m.fromCol < board.getEmptyCol()) return MoveHistory.LEFT;
+        return MoveHistory.RIGHT;
+    }
+}
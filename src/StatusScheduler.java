@@ -0,0 +1,44 @@
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.Timer;
+
+// Klassen StatusScheduler är den enda timern som driver status-texten i hela programmet.
+// Uppgifterna körs i Swing-tråden med jämna mellanrum; varje uppgift ska själv avgöra
+// om något har ändrats (t.ex. visad sekund) och bara då rita om. Timern går bara när det finns uppgifter.
+public final class StatusScheduler {
+
+    private static final int TICK_MS = 100; // Så lång tid kan det som mest dröja innan en ny sekund visas
+
+    private static final List<Runnable> TASKS = new ArrayList<>(); // Används bara från Swing-tråden
+    private static final Timer TIMER = new Timer(TICK_MS, (e) -> tick());
+
+    private StatusScheduler() {
+    }
+
+    // add – lägger till en uppgift (en uppgift som redan finns läggs inte till igen)
+    public static void add(Runnable task) {
+        if (!TASKS.contains(task)) {
+            TASKS.add(task);
+        }
+        if (!TIMER.isRunning()) {
+            TIMER.start();
+        }
+    }
+
+    // remove – tar bort en uppgift och stoppar timern när inga uppgifter finns kvar
+    public static void remove(Runnable task) {
+        TASKS.remove(task);
+        if (TASKS.isEmpty()) {
+            TIMER.stop();
+        }
+    }
+
+    // tick – kör alla uppgifter
+    private static void tick() {
+        long start = Metrics.now();
+        for (int i = 0; i < TASKS.size(); ++i) {
+            TASKS.get(i).run();
+        }
+        Metrics.STATUS_TICK.record(start);
+    }
+}
@@ -1,6 +1,10 @@
+import java.util.Arrays;
+
 // Klassen Tile är en enda ruta i spelet (en bricka med ett värde)
 public final class Tile {  // final betyder att ingen annan klass kan ärva den
 
+    private static volatile Tile[] cache = new Tile[0]; // Delade Tile-objekt, index = värde
+
     private final int value; // Siffran på brickan (0 betyder tom ruta)
 
     // Skapar en Tile med ett visst värde
@@ -8,6 +12,26 @@ public final class Tile {  // final betyder att ingen annan klass kan ärva den
         this.value = value;
     }
 
+    // cache – delade Tile-objekt för minst värdena 0 till count - 1 (alla bräden delar samma objekt)
+    static Tile[] cache(int count) {
+        Tile[] current = cache;
+        if (current.length >= count) {
+            return current;
+        }
+        synchronized (Tile.class) {
+            current = cache;
+            if (current.length < count) {
+                Tile[] grown = Arrays.copyOf(current, count);
+                for (int value = current.length; value < count; ++value) {
+                    grown[value] = new Tile(value);
+                }
+                cache = grown;
+                current = grown;
+            }
+            return current;
+        }
+    }
+
     // Kollar om rutan är tom (värdet är 0)
     public boolean isEmpty() {
         return this.value == 0;
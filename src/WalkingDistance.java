@@ -0,0 +1,310 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Klassen WalkingDistance är heuristiken "walking distance": rörelserna upp/ner och vänster/höger räknas var
+// för sig. Ett radtillstånd säger bara hur många brickor i varje rad som hör hemma i varje rad (och var den
+// tomma rutan står). Tabellen ger för varje sådant tillstånd hur många drag upp/ner som minst behövs, där
+// brickor i samma rad med samma målrad kan byta plats gratis. Kolumnerna använder samma tabell (brädet
+// speglat i diagonalen), och summan blir aldrig för hög eftersom varje drag antingen är lodrätt eller vågrätt.
+// Det är ofta mycket starkare än Manhattan-avståndet men tabellen är liten (24 964 tillstånd för 4x4).
+// Den räknas ut första gången den behövs och sparas i en fil; nästa gång läses filen bara in.
+public final class WalkingDistance {
+
+    public static final int MAX_SIZE = 4;          // 5x5 har för många tillstånd för att räknas ut vid behov
+    private static final int MAGIC = 0x57445431;   // "WDT1" – känns igen i början av filen
+
+    private final int size;        // Brädets storlek
+    private final long[] keys;     // Tillståndens nycklar i stigande ordning (index = tillståndets nummer)
+    private final byte[] distance; // Minsta antal lodräta drag för varje tillstånd
+    private final int[] links;     // Nästa tillstånd: links[(tillstånd * 2 + riktning) * size + målrad], -1 om omöjligt
+
+    private static final WalkingDistance[] LOADED = new WalkingDistance[MAX_SIZE + 1]; // Redan inlästa tabeller
+
+    private WalkingDistance(int size, long[] keys, byte[] distance, int[] links) {
+        this.size = size;
+        this.keys = keys;
+        this.distance = distance;
+        this.links = links;
+    }
+
+    // fileFor – filen där tabellen för en viss storlek sparas (i samma mapp som highscore och sparade spel)
+    public static File fileFor(int size) {
+        return new File(Highscore.DIR, "WalkingDistance-" + size + ".bin");
+    }
+
+    // forSize – hämtar tabellen för en storlek: läser filen om den finns, annars räknas den ut och sparas.
+    // Returnerar null för storlekar som inte stöds.
+    public static synchronized WalkingDistance forSize(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            return null;
+        }
+        if (LOADED[size] == null) {
+            File file = fileFor(size);
+            if (file.exists()) {
+                try {
+                    LOADED[size] = load(file);
+                } catch (IOException | IllegalArgumentException e) {
+                    e.printStackTrace(); // Räknas ut på nytt nedan
+                }
+            }
+            if (LOADED[size] == null) {
+                LOADED[size] = generate(size);
+                try {
+                    LOADED[size].write(file);
+                } catch (IOException e) {
+                    e.printStackTrace(); // Tabellen fungerar ändå, den räknas bara ut igen nästa gång
+                }
+            }
+        }
+        return LOADED[size];
+    }
+
+    // load – läser en färdig tabellfil
+    public static WalkingDistance load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.capacity() < 12 || buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Inte en walking distance-tabell: " + file);
+            }
+            int size = buffer.getInt(4);
+            int count = buffer.getInt(8);
+            if (size < 2 || size > MAX_SIZE || count < 1
+                    || buffer.capacity() != 12 + count * (8L + 1L + 4L * 2 * size)) {
+                throw new IllegalArgumentException("Fel längd på walking distance-tabellen: " + file);
+            }
+
+            long[] keys = new long[count];
+            byte[] distance = new byte[count];
+            int[] links = new int[count * 2 * size];
+            buffer.position(12);
+            buffer.asLongBuffer().get(keys);
+            buffer.position(12 + 8 * count);
+            buffer.get(distance);
+            buffer.asIntBuffer().get(links);
+            return new WalkingDistance(size, keys, distance, links);
+        }
+    }
+
+    // write – sparar tabellen i en fil
+    void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(this.size);
+            out.writeInt(this.keys.length);
+            for (long key : this.keys) {
+                out.writeLong(key);
+            }
+            out.write(this.distance);
+            for (int link : this.links) {
+                out.writeInt(link);
+            }
+        }
+    }
+
+    // size – brädstorleken som tabellen gäller för
+    public int size() {
+        return this.size;
+    }
+
+    // states – antal radtillstånd i tabellen
+    public int states() {
+        return this.keys.length;
+    }
+
+    // newHeuristic – skapar ett eget sök-tillstånd (en per sökning/tråd) som läser ur tabellen
+    public Heuristic newHeuristic() {
+        return new Lookup();
+    }
+
+    // Lookup följer radtillståndet och kolumntillståndet. Ett drag byter bara det ena av dem,
+    // via en enda länk i tabellen, så ett drag kostar några array-uppslag.
+    private final class Lookup implements Heuristic {
+
+        private final int[] rowOf = new int[size * size];    // Raden för varje ruta
+        private final int[] colOf = new int[size * size];    // Kolumnen för varje ruta
+        private final int[] goalRow = new int[size * size];  // Målraden för varje bricka
+        private final int[] goalCol = new int[size * size];  // Målkolumnen för varje bricka
+        private final int[] counts = new int[size * size];   // Arbetsyta för reset
+
+        private int rowState;  // Nuvarande radtillstånd
+        private int colState;  // Nuvarande kolumntillstånd
+
+        Lookup() {
+            for (int pos = 0; pos < size * size; ++pos) {
+                this.rowOf[pos] = pos / size;
+                this.colOf[pos] = pos % size;
+            }
+            // Bricka t hör hemma på ruta t - 1 (samma mål som Board.initSolved)
+            for (int tile = 1; tile < size * size; ++tile) {
+                this.goalRow[tile] = (tile - 1) / size;
+                this.goalCol[tile] = (tile - 1) % size;
+            }
+        }
+
+        @Override
+        public int reset(byte[] tiles) {
+            this.rowState = this.state(tiles, this.rowOf, this.goalRow);
+            this.colState = this.state(tiles, this.colOf, this.goalCol);
+            return (distance[this.rowState] & 0xFF) + (distance[this.colState] & 0xFF);
+        }
+
+        @Override
+        public int apply(byte[] tiles, int tile, int from, int to) {
+            // Brickan flyttas in i den tomma rutan (to); riktning 0 om den kommer ovanifrån/från vänster
+            if (this.rowOf[from] != this.rowOf[to]) {
+                int dir = this.rowOf[from] < this.rowOf[to] ? 0 : 1;
+                this.rowState = links[(this.rowState * 2 + dir) * size + this.goalRow[tile]];
+            } else {
+                int dir = this.colOf[from] < this.colOf[to] ? 0 : 1;
+                this.colState = links[(this.colState * 2 + dir) * size + this.goalCol[tile]];
+            }
+            return (distance[this.rowState] & 0xFF) + (distance[this.colState] & 0xFF);
+        }
+
+        // state – tillståndet för rader (lineOf = rowOf, goalOf = goalRow) eller kolumner
+        private int state(byte[] tiles, int[] lineOf, int[] goalOf) {
+            Arrays.fill(this.counts, 0);
+            int blankLine = 0;
+            for (int pos = 0; pos < tiles.length; ++pos) {
+                int tile = tiles[pos] & 0xFF;
+                if (tile == 0) {
+                    blankLine = lineOf[pos];
+                } else {
+                    ++this.counts[lineOf[pos] * size + goalOf[tile]];
+                }
+            }
+            int index = Arrays.binarySearch(keys, key(size, this.counts, blankLine));
+            if (index < 0) {
+                throw new IllegalStateException("Tillståndet saknas i walking distance-tabellen");
+            }
+            return index;
+        }
+    }
+
+    // key – nyckel för ett tillstånd: counts[rad * size + målrad] i bas size + 1 och den tomma rutans rad.
+    // Sista målraden behövs inte eftersom varje rads summa är känd (size, size - 1 för den tomma rutans rad).
+    static long key(int size, int[] counts, int blankLine) {
+        long key = blankLine;
+        for (int line = 0; line < size; ++line) {
+            for (int goal = 0; goal < size - 1; ++goal) {
+                key = key * (size + 1) + counts[line * size + goal];
+            }
+        }
+        return key;
+    }
+
+    // decode – motsatsen till key: fyller counts och returnerar den tomma rutans rad
+    static int decode(int size, long key, int[] counts) {
+        for (int line = size - 1; line >= 0; --line) {
+            for (int goal = size - 2; goal >= 0; --goal) {
+                counts[line * size + goal] = (int) (key % (size + 1));
+                key /= size + 1;
+            }
+        }
+        int blankLine = (int) key;
+        for (int line = 0; line < size; ++line) {
+            int rest = line == blankLine ? size - 1 : size;
+            for (int goal = 0; goal < size - 1; ++goal) {
+                rest -= counts[line * size + goal];
+            }
+            counts[line * size + size - 1] = rest;
+        }
+        return blankLine;
+    }
+
+    // generate – bredden-först-sökning från målläget över alla radtillstånd
+    static WalkingDistance generate(int size) {
+        int[] counts = new int[size * size];
+        for (int line = 0; line < size; ++line) {
+            counts[line * size + line] = line < size - 1 ? size : size - 1; // Den tomma rutan står i sista raden
+        }
+
+        // Tillstånden numreras i den ordning de hittas (kön är själva listan); nycklarna sorteras efteråt
+        Map<Long, Integer> index = new HashMap<>();
+        long[] found = new long[1024];
+        byte[] levels = new byte[1024];
+        int[] next = new int[1024 * 2 * size];
+        int count = 1;
+        found[0] = key(size, counts, size - 1);
+        index.put(found[0], 0);
+
+        for (int s = 0; s < count; ++s) {
+            int blank = decode(size, found[s], counts);
+            for (int dir = 0; dir < 2; ++dir) {
+                int from = dir == 0 ? blank - 1 : blank + 1; // Raden som brickan flyttas ifrån
+                for (int goal = 0; goal < size; ++goal) {
+                    int link = (s * 2 + dir) * size + goal;
+                    if (from < 0 || from >= size || counts[from * size + goal] == 0) {
+                        next[link] = -1;
+                        continue;
+                    }
+                    --counts[from * size + goal];
+                    ++counts[blank * size + goal];
+                    long key = key(size, counts, from);
+                    Integer target = index.get(key);
+                    if (target == null) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                            levels = Arrays.copyOf(levels, count * 2);
+                            next = Arrays.copyOf(next, count * 2 * 2 * size);
+                        }
+                        target = count++;
+                        index.put(key, target);
+                        found[target] = key;
+                        levels[target] = (byte) (levels[s] + 1);
+                    }
+                    next[link] = target;
+                    ++counts[from * size + goal];
+                    --counts[blank * size + goal];
+                }
+            }
+        }
+
+        // Sorterar tillstånden efter nyckel så att reset kan hitta dem med binärsökning
+        long[] keys = Arrays.copyOf(found, count);
+        Arrays.sort(keys);
+        int[] renumber = new int[count];
+        for (int s = 0; s < count; ++s) {
+            renumber[s] = Arrays.binarySearch(keys, found[s]);
+        }
+
+        byte[] distance = new byte[count];
+        int[] links = new int[count * 2 * size];
+        for (int s = 0; s < count; ++s) {
+            int t = renumber[s];
+            distance[t] = levels[s];
+            for (int i = 0; i < 2 * size; ++i) {
+                int target = next[s * 2 * size + i];
+                links[t * 2 * size + i] = target < 0 ? -1 : renumber[target];
+            }
+        }
+        return new WalkingDistance(size, keys, distance, links);
+    }
+
+    // main – räknar ut och sparar tabellen: java WalkingDistance <storlek>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Användning: java WalkingDistance <storlek (2–" + MAX_SIZE + ")>");
+            return;
+        }
+
+        int size = Integer.parseInt(args[0]);
+        File file = fileFor(size);
+        long start = System.currentTimeMillis();
+        WalkingDistance table = generate(size);
+        table.write(file);
+        System.out.printf("Skrev %s (%d tillstånd, %d byte) på %d ms%n",
+                file, table.states(), file.length(), System.currentTimeMillis() - start);
+    }
+}
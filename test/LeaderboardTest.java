@@ -0,0 +1,168 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// LeaderboardTest – resultaten i Highscore.dat ska komma tillbaka ur indexet (Highscore.idx) i rätt ordning,
+// indexet ska gå att bygga om eller ta igen efter ett avbrott utan dubbletter, och den gamla textfilen
+// ska läsas in en gång. Varje test har en egen mapp; ett nytt Leaderboard-objekt är som en omstart.
+class LeaderboardTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void topIsSortedByMovesThenTime() {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        Random random = new Random(1);
+        List<Highscore.Entry> added = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            Highscore.Entry entry = new Highscore.Entry("spelare " + i, 20 + random.nextInt(30),
+                    random.nextInt(100_000), 4, 1_700_000_000_000L + i);
+            leaderboard.add(entry);
+            added.add(entry);
+        }
+        Collections.sort(added);
+
+        List<Highscore.Entry> top = leaderboard.top(4, 10);
+        assertEquals(10, top.size());
+        for (int i = 0; i < top.size(); ++i) {
+            assertSame(added.get(i), top.get(i));
+        }
+        assertEquals(3, leaderboard.top(4, 3).size());
+
+        // Samma lista efter en omstart
+        List<Highscore.Entry> again = new Leaderboard(this.dir).top(4, 10);
+        for (int i = 0; i < top.size(); ++i) {
+            assertSame(top.get(i), again.get(i));
+        }
+    }
+
+    @Test
+    void listsAreKeptPerSize() {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        leaderboard.add(new Highscore.Entry("tre", 30, 1_000L, 3, 1L));
+        leaderboard.add(new Highscore.Entry("fyra", 50, 2_000L, 4, 2L));
+        leaderboard.add(new Highscore.Entry("stor", 9_000, 3_000L, Board.MAX_SIZE, 3L));
+        leaderboard.add(new Highscore.Entry("gammal", 5, 500L)); // Utan storlek
+        leaderboard.add(new Highscore.Entry("åäö ".repeat(20), 31, 1_000L, 3, 4L)); // Namnet kortas av
+
+        List<Highscore.Entry> three = leaderboard.top(3, 10);
+        assertEquals(2, three.size());
+        assertEquals("tre", three.get(0).name);
+        assertTrue("åäö ".repeat(20).startsWith(three.get(1).name));
+        assertEquals(1, leaderboard.top(4, 10).size());
+        assertEquals("stor", leaderboard.top(Board.MAX_SIZE, 10).get(0).name);
+        assertEquals("gammal", leaderboard.top(Leaderboard.UNKNOWN_SIZE, 10).get(0).name);
+        assertEquals(0, leaderboard.top(5, 10).size());
+    }
+
+    @Test
+    void bestMergesAllSizes() {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        for (int size = 2; size <= 6; ++size) {
+            for (int i = 0; i < 12; ++i) {
+                leaderboard.add(new Highscore.Entry("s" + size + "-" + i, size * 10 + i, i, size, 0L));
+            }
+        }
+        List<Highscore.Entry> best = leaderboard.best(15);
+        assertEquals(15, best.size());
+        assertEquals("s2-0", best.get(0).name);
+        assertEquals("s2-9", best.get(9).name);   // Bara de 10 bästa per storlek finns i indexet
+        assertEquals("s3-0", best.get(10).name);
+    }
+
+    @Test
+    void replaceKeepsOnlyTheNewList() {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        for (int i = 0; i < 20; ++i) {
+            leaderboard.add(new Highscore.Entry("p" + i, 10 + i, 0L, 3, 0L));
+        }
+        leaderboard.replace(List.of(new Highscore.Entry("ny", 99, 0L, 3, 0L), new Highscore.Entry("fem", 7, 0L, 5, 0L)));
+
+        assertEquals(1, leaderboard.top(3, 10).size());
+        assertEquals("ny", leaderboard.top(3, 10).get(0).name);
+        assertEquals("fem", leaderboard.best(10).get(0).name);
+        leaderboard.add(new Highscore.Entry("efter", 1, 0L, 3, 0L));
+        assertEquals("efter", new Leaderboard(this.dir).top(3, 10).get(0).name);
+    }
+
+    @Test
+    void rebuildsMissingIndex() throws IOException {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        for (int i = 0; i < 15; ++i) {
+            leaderboard.add(new Highscore.Entry("p" + i, 100 - i, 1_000L, 3, i));
+        }
+        Files.delete(new File(this.dir, "Highscore.idx").toPath());
+
+        List<Highscore.Entry> top = new Leaderboard(this.dir).top(3, 10);
+        assertEquals(10, top.size());
+        assertEquals("p14", top.get(0).name);
+        assertEquals("p5", top.get(9).name);
+    }
+
+    @Test
+    void replayAfterCrashAddsNoDuplicates() throws IOException {
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        leaderboard.add(new Highscore.Entry("a", 10, 1_000L, 3, 1L));
+        leaderboard.add(new Highscore.Entry("b", 11, 1_000L, 3, 2L));
+        leaderboard.add(new Highscore.Entry("c", 12, 1_000L, 3, 3L));
+
+        // Som om programmet avbröts efter insert men innan antalet poster i indexet sparades
+        try (RandomAccessFile raf = new RandomAccessFile(new File(this.dir, "Highscore.idx"), "rw")) {
+            raf.seek(8);
+            raf.writeLong(2L);
+        }
+
+        List<Highscore.Entry> top = new Leaderboard(this.dir).top(3, 10);
+        assertEquals(3, top.size());
+        assertEquals("a", top.get(0).name);
+        assertEquals("b", top.get(1).name);
+        assertEquals("c", top.get(2).name);
+    }
+
+    @Test
+    void importsLegacyTextOnce() throws IOException {
+        File legacy = new File(this.dir, "Highscore.txt");
+        Files.write(legacy.toPath(), List.of(
+                "Anna;40;12000",                // Äldre rad utan storlek
+                "Bo;25;9000;3;1700000000000",
+                "trasig;rad",
+                "Cecilia;35;5000;4;1700000000001",
+                "Dan;3"), StandardCharsets.UTF_8);
+
+        Leaderboard leaderboard = new Leaderboard(this.dir);
+        assertEquals(3, leaderboard.importText(legacy));
+        assertFalse(legacy.exists());
+        assertTrue(new File(this.dir, "Highscore.txt.migrated").exists());
+        assertEquals("Anna", leaderboard.top(Leaderboard.UNKNOWN_SIZE, 10).get(0).name);
+        assertEquals("Bo", leaderboard.top(3, 10).get(0).name);
+        assertEquals("Cecilia", leaderboard.top(4, 10).get(0).name);
+
+        // Avbröts inläsningen innan filen döptes om läses den in igen, men utan dubbletter
+        Files.copy(new File(this.dir, "Highscore.txt.migrated").toPath(), legacy.toPath());
+        assertEquals(0, new Leaderboard(this.dir).importText(legacy));
+        assertEquals(1, leaderboard.top(3, 10).size());
+    }
+
+    // assertSame – samma resultat (Entry har ingen equals)
+    private static void assertSame(Highscore.Entry expected, Highscore.Entry actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.moves, actual.moves);
+        assertEquals(expected.timeMs, actual.timeMs);
+        assertEquals(expected.size, actual.size);
+        assertEquals(expected.timestamp, actual.timestamp);
+    }
+}
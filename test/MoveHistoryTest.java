@@ -0,0 +1,273 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// MoveHistoryTest – kontrollerar historiken för ångra/gör om mot en enkel lista, att ett drag bara tar
+// 2 bitar (även rakt tillbaka), att en skjuten rad är en enda post och att writeTo/readFrom ger tillbaka
+// exakt samma historik
+class MoveHistoryTest {
+
+    @Test
+    void plainMovesCostTwoBits() {
+        MoveHistory history = new MoveHistory();
+        for (int i = 0; i < 100; ++i) {
+            history.push(i % 2 == 0 ? MoveHistory.UP : MoveHistory.LEFT);
+        }
+        assertEquals(100, history.undoSize());
+        assertEquals(24 + 4 * 8, history.encodedSize()); // Tre räknare och 100 drag i 4 long
+    }
+
+    @Test
+    void backMovesCostTwoBits() {
+        // Att klicka fram och tillbaka (eller ångra genom att klicka) ska inte kosta mer än andra drag
+        MoveHistory history = new MoveHistory();
+        for (int i = 0; i < 10_000; ++i) {
+            history.push(i % 2 == 0 ? MoveHistory.LEFT : MoveHistory.RIGHT);
+        }
+        assertEquals(10_000, history.undoSize());
+        assertEquals(24 + (10_000 + 31) / 32 * 8, history.encodedSize()); // 2 bitar per drag
+        for (int i = 9_999; i >= 0; --i) {
+            assertEquals(entry(i % 2 == 0 ? MoveHistory.LEFT : MoveHistory.RIGHT, 1), history.undo());
+        }
+    }
+
+    @Test
+    void slideIsOneEntry() {
+        MoveHistory history = new MoveHistory();
+        history.push(MoveHistory.DOWN);
+        history.push(MoveHistory.RIGHT, 7);
+        history.push(MoveHistory.LEFT); // Rakt tillbaka efter en skjuten rad
+        assertEquals(3, history.undoSize());
+        assertEquals(24 + 8 + 8, history.encodedSize()); // Tre poster i en long och en skjuten rad
+
+        assertEquals(entry(MoveHistory.LEFT, 1), history.undo());
+        assertEquals(entry(MoveHistory.RIGHT, 7), history.undo());
+        assertEquals(entry(MoveHistory.DOWN, 1), history.undo());
+        assertEquals(-1, history.undo());
+
+        assertEquals(entry(MoveHistory.DOWN, 1), history.redo());
+        assertEquals(entry(MoveHistory.RIGHT, 7), history.redo());
+        history.push(MoveHistory.UP, 3); // Ersätter det som kunde göras om
+        assertEquals(-1, history.redo());
+        assertEquals(entry(MoveHistory.UP, 3), history.undo());
+        assertEquals(entry(MoveHistory.RIGHT, 7), history.undo());
+    }
+
+    @Test
+    void rejectsBadLength() {
+        MoveHistory history = new MoveHistory();
+        assertThrows(IllegalArgumentException.class, () -> history.push(MoveHistory.UP, 0));
+        assertThrows(IllegalArgumentException.class, () -> history.push(MoveHistory.UP, MoveHistory.MAX_RUN + 1));
+    }
+
+    @Test
+    void slidesMatchListModel() {
+        Random random = new Random(4);
+        MoveHistory history = new MoveHistory();
+        List<Integer> model = new ArrayList<>();
+        int cursor = 0;
+
+        for (int step = 0; step < 200_000; ++step) {
+            int op = random.nextInt(10);
+            if (op < 6) {
+                int entry = randomEntry(random);
+                history.push(MoveHistory.direction(entry), MoveHistory.length(entry));
+                model.subList(cursor, model.size()).clear();
+                model.add(entry);
+                ++cursor;
+            } else if (op < 8) {
+                assertEquals(cursor > 0 ? model.get(--cursor) : -1, history.undo());
+            } else {
+                assertEquals(cursor < model.size() ? model.get(cursor++) : -1, history.redo());
+            }
+        }
+    }
+
+    @Test
+    void slidesRoundTrip() {
+        Random random = new Random(5);
+        MoveHistory history = new MoveHistory();
+        for (int i = 0; i < 50_000; ++i) {
+            int entry = randomEntry(random);
+            history.push(MoveHistory.direction(entry), MoveHistory.length(entry));
+        }
+        for (int i = 0; i < 777; ++i) {
+            history.undo();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(history.encodedSize());
+        history.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        MoveHistory copy = new MoveHistory();
+        copy.readFrom(buffer);
+        assertEquals(drain(history), drain(copy));
+    }
+
+    @Test
+    void limitDropsOldSlides() {
+        // De skjutna raderna i ett släppt block ska släppas med det, och de som finns kvar ska hamna rätt
+        Random random = new Random(6);
+        MoveHistory history = new MoveHistory(100);
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 40_000; ++i) {
+            int entry = randomEntry(random);
+            history.push(MoveHistory.direction(entry), MoveHistory.length(entry));
+            model.add(entry);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(history.encodedSize());
+        history.writeTo(buffer);
+        buffer.flip();
+        MoveHistory copy = new MoveHistory();
+        copy.readFrom(buffer);
+
+        int kept = 0;
+        for (int entry = history.undo(); entry >= 0; entry = history.undo()) {
+            assertEquals(model.get(model.size() - 1 - kept), entry);
+            assertEquals(entry, copy.undo());
+            ++kept;
+        }
+        assertEquals(-1, copy.undo());
+        assertTrue(kept >= 100 && kept < model.size(), "fel antal kvar: " + kept);
+    }
+
+    @Test
+    void undoAndRedoMoveTheCursor() {
+        MoveHistory history = new MoveHistory();
+        assertEquals(-1, history.undo());
+        history.push(MoveHistory.DOWN);
+        history.push(MoveHistory.RIGHT);
+
+        assertEquals(MoveHistory.RIGHT, MoveHistory.direction(history.undo()));
+        assertTrue(history.canRedo());
+        history.push(MoveHistory.UP); // Glömmer draget som kunde göras om
+        assertFalse(history.canRedo());
+        assertEquals(-1, history.redo());
+
+        assertEquals(MoveHistory.UP, MoveHistory.direction(history.undo()));
+        assertEquals(MoveHistory.DOWN, MoveHistory.direction(history.undo()));
+        assertFalse(history.canUndo());
+        assertEquals(MoveHistory.DOWN, MoveHistory.direction(history.redo()));
+        assertEquals(1, MoveHistory.length(history.redo()));
+    }
+
+    @Test
+    void matchesListModel() {
+        Random random = new Random(1);
+        MoveHistory history = new MoveHistory();
+        List<Integer> model = new ArrayList<>();
+        int cursor = 0;
+
+        for (int step = 0; step < 200_000; ++step) {
+            int op = random.nextInt(10);
+            if (op < 6) {
+                int direction = random.nextInt(4);
+                history.push(direction);
+                model.subList(cursor, model.size()).clear();
+                model.add(direction);
+                ++cursor;
+            } else if (op < 8) {
+                int entry = history.undo();
+                assertEquals(cursor > 0 ? model.get(--cursor) : -1, entry < 0 ? -1 : MoveHistory.direction(entry));
+            } else {
+                int entry = history.redo();
+                assertEquals(cursor < model.size() ? model.get(cursor++) : -1, entry < 0 ? -1 : MoveHistory.direction(entry));
+            }
+            assertEquals(cursor > 0, history.canUndo());
+            assertEquals(cursor < model.size(), history.canRedo());
+        }
+    }
+
+    @Test
+    void writeToAndReadFromRoundTrip() {
+        Random random = new Random(2);
+        MoveHistory history = new MoveHistory();
+        for (int i = 0; i < 50_000; ++i) {
+            history.push(random.nextInt(4));
+        }
+        for (int i = 0; i < 1_234; ++i) {
+            history.undo(); // Lämnar något att göra om
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(history.encodedSize());
+        history.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        MoveHistory copy = new MoveHistory();
+        copy.push(MoveHistory.UP); // Ska ersättas helt
+        copy.readFrom(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(history.undoSize(), copy.undoSize());
+        assertEquals(history.redoSize(), copy.redoSize());
+        assertEquals(drain(history), drain(copy));
+    }
+
+    @Test
+    void readFromRejectsTruncatedHistory() {
+        MoveHistory history = new MoveHistory();
+        for (int i = 0; i < 40; ++i) {
+            history.push(MoveHistory.UP);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(history.encodedSize());
+        history.writeTo(buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new MoveHistory().readFrom(buffer));
+    }
+
+    @Test
+    void limitKeepsNewestMoves() {
+        // Långt över ett block (16 384 drag) med ett litet tak: det äldsta blocket släpps och
+        // det som finns kvar ska vara de senaste dragen
+        Random random = new Random(3);
+        MoveHistory history = new MoveHistory(100);
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 20_000; ++i) {
+            int direction = random.nextInt(4);
+            history.push(direction);
+            model.add(direction);
+        }
+
+        int kept = 0;
+        for (int entry = history.undo(); entry >= 0; entry = history.undo()) {
+            assertEquals(model.get(model.size() - 1 - kept), MoveHistory.direction(entry));
+            ++kept;
+        }
+        assertTrue(kept >= 100, "för få drag kvar: " + kept);
+        assertTrue(kept < model.size(), "inget släpptes");
+    }
+
+    // randomEntry – ett vanligt drag oftast, ibland en skjuten rad (kort eller så lång som möjligt)
+    private static int randomEntry(Random random) {
+        int pick = random.nextInt(10);
+        int length = pick < 7 ? 1 : pick < 9 ? 2 + random.nextInt(6) : MoveHistory.MAX_RUN;
+        return entry(random.nextInt(4), length);
+    }
+
+    private static int entry(int direction, int length) {
+        return (length << 2) | direction;
+    }
+
+    // drain – alla poster bakåt till början och sedan framåt till slutet
+    private static List<Integer> drain(MoveHistory history) {
+        List<Integer> entries = new ArrayList<>();
+        for (int entry = history.undo(); entry >= 0; entry = history.undo()) {
+            entries.add(entry);
+        }
+        for (int entry = history.redo(); entry >= 0; entry = history.redo()) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// ReplayArchiveTest – poster som skrivs med encode/append ska läsas tillbaka fält för fält av Reader,
+// både med frö och med startställningen sparad ruta för ruta, och med varint-längder på flera byte
+class ReplayArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendAndReadRoundTrip() throws IOException {
+        Random random = new Random(1);
+        List<Replay> replays = new ArrayList<>();
+        replays.add(randomReplay(random, 3, true, 0L, 0));
+        replays.add(randomReplay(random, 4, true, 127L, 1));
+        replays.add(randomReplay(random, 4, false, 128L, 33));
+        replays.add(randomReplay(random, 16, false, 16_383L, 127));
+        replays.add(randomReplay(random, 17, false, 16_384L, 128));  // Två byte per ruta
+        replays.add(randomReplay(random, 100, true, 1L << 40, 100_003));
+
+        File file = this.dir.resolve("Replays.bin").toFile();
+        byte[][] records = new byte[replays.size()][];
+        for (int i = 0; i < records.length; ++i) {
+            records[i] = ReplayArchive.encode(replays.get(i));
+        }
+        ReplayArchive.append(file, records, 4);
+        ReplayArchive.append(file, new byte[][] {records[4], records[5]}, 2); // MAGIC skrivs bara en gång
+
+        try (ReplayArchive.Reader reader = ReplayArchive.open(file)) {
+            for (Replay expected : replays) {
+                assertTrue(reader.next());
+                assertEquals(expected.size(), reader.size());
+                assertEquals(expected.isSeeded(), reader.isSeeded());
+                assertEquals(expected.seed(), reader.seed());
+                assertEquals(expected.durationMs(), reader.durationMs());
+                assertEquals(expected.moveCount(), reader.moveCount());
+                for (int i = 0; i < expected.moveCount(); ++i) {
+                    assertEquals(expected.direction(i), reader.direction(i));
+                }
+
+                Replay copy = reader.toReplay();
+                assertEquals(expected.moveCount(), copy.moveCount());
+                assertArrayEquals(expected.startCells(), copy.startCells());
+                assertArrayEquals(expected.packedMoves(), copy.packedMoves());
+                assertArrayEquals(expected.newBoard().toArray(), copy.newBoard().toArray());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void ignoresHalfWrittenRecord() throws IOException {
+        Random random = new Random(2);
+        Replay first = randomReplay(random, 4, true, 5_000L, 300);
+        Replay second = randomReplay(random, 5, false, 6_000L, 300);
+        byte[] firstRecord = ReplayArchive.encode(first);
+        byte[] secondRecord = ReplayArchive.encode(second);
+        File file = this.dir.resolve("Replays.bin").toFile();
+        ReplayArchive.append(file, new byte[][] {firstRecord, secondRecord}, 2);
+
+        // Sista posten kapas mitt i stegen, och sedan mitt i huvudet (fröet)
+        long firstEnd = 4L + firstRecord.length;
+        for (long length : new long[] {firstEnd + secondRecord.length - 10, firstEnd + 5}) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(length);
+            }
+            try (ReplayArchive.Reader reader = ReplayArchive.open(file)) {
+                assertTrue(reader.next());
+                assertEquals(first.seed(), reader.seed());
+                assertFalse(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void appendCutsHalfWrittenRecord() throws IOException {
+        Random random = new Random(4);
+        Replay first = randomReplay(random, 4, true, 1_000L, 50);
+        Replay lost = randomReplay(random, 6, false, 2_000L, 400);
+        Replay later = randomReplay(random, 3, true, 3_000L, 70);
+        byte[] firstRecord = ReplayArchive.encode(first);
+        File file = this.dir.resolve("Replays.bin").toFile();
+        ReplayArchive.append(file, new byte[][] {firstRecord, ReplayArchive.encode(lost)}, 2);
+
+        // Som om programmet dödades mitt i den andra posten
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(4L + firstRecord.length + 20);
+        }
+        ReplayArchive.append(file, new byte[][] {ReplayArchive.encode(later)}, 1);
+        ReplayArchive.append(file, new byte[][] {ReplayArchive.encode(first)}, 1);
+
+        try (ReplayArchive.Reader reader = ReplayArchive.open(file)) {
+            for (Replay expected : new Replay[] {first, later, first}) {
+                assertTrue(reader.next());
+                assertEquals(expected.seed(), reader.seed());
+                assertEquals(expected.moveCount(), reader.moveCount());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        File file = this.dir.resolve("other.bin").toFile();
+        Files.write(file.toPath(), new byte[] {1, 2, 3, 4, 5});
+        assertThrows(IOException.class, () -> ReplayArchive.open(file));
+    }
+
+    @Test
+    void seededReplayHasNoCells() {
+        Replay replay = randomReplay(new Random(3), 4, true, 0L, 4);
+        assertNull(replay.startCells());
+        // size, flaggor, frö, tid och antal (en byte var) och 4 steg i en byte
+        assertEquals(1 + 1 + 8 + 1 + 1 + 1, ReplayArchive.encode(replay).length);
+    }
+
+    // randomReplay – ett inspelat spel med slumpmässiga steg (uppspelningen behöver inte vara giltig här)
+    private static Replay randomReplay(Random random, int size, boolean seeded, long durationMs, int moveCount) {
+        long seed = random.nextLong();
+        int[] start = null;
+        if (!seeded) {
+            Board board = new Board(size);
+            board.shuffleUniform(seed);
+            start = board.toArray();
+        }
+        long[] moves = new long[(moveCount + 31) >>> 5];
+        for (int i = 0; i < moveCount; ++i) {
+            moves[i >>> 5] |= (long) random.nextInt(4) << ((i & 31) << 1);
+        }
+        return new Replay(size, seed, start, durationMs, moveCount, moves);
+    }
+}
@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// SavedGameTest – ett spel som sparas med encode och läses med load ska gå att fortsätta exakt där det var,
+// med samma ställning, antal drag, speltid och historik för ångra/gör om
+class SavedGameTest {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 5, 11, Board.MAX_SIZE})
+    void encodeAndLoadRoundTrip(int size) throws IOException {
+        Random random = new Random(size);
+        Board board = new Board(size);
+        board.shuffleUniform(size);
+        play(board, random, 500);
+        for (int i = 0; i < 40; ++i) {
+            board.undo(); // Lämnar något att göra om
+        }
+        long elapsed = 123_456_789_012L;
+
+        File file = this.dir.resolve("SavedGame.bin").toFile();
+        Files.write(file.toPath(), SavedGame.encode(board, elapsed));
+        SavedGame saved = SavedGame.load(file);
+        assertEquals(size, saved.size());
+        assertEquals(elapsed, saved.elapsedNanos());
+
+        Board copy = new Board(size);
+        saved.restore(copy);
+        assertArrayEquals(board.toArray(), copy.toArray());
+        assertEquals(board.getHash(), copy.getHash());
+        assertEquals(board.getMoves(), copy.getMoves());
+
+        // Historiken ska ge samma ställningar åt båda hållen
+        while (board.undo()) {
+            assertEquals(true, copy.undo());
+            assertEquals(board.getHash(), copy.getHash());
+            assertEquals(board.getMoves(), copy.getMoves());
+        }
+        assertEquals(false, copy.undo());
+        while (board.redo()) {
+            assertEquals(true, copy.redo());
+            assertEquals(board.getHash(), copy.getHash());
+        }
+        assertEquals(false, copy.redo());
+        assertArrayEquals(board.toArray(), copy.toArray());
+    }
+
+    @Test
+    void loadedGameDoesNotHoldTheFile() throws IOException {
+        Board board = new Board(4);
+        board.shuffleUniform(7);
+        play(board, new Random(7), 100);
+        File file = this.dir.resolve("SavedGame.bin").toFile();
+        Files.write(file.toPath(), SavedGame.encode(board, 0L));
+        SavedGame saved = SavedGame.load(file);
+
+        // Skrivtråden ersätter filen medan spelet pågår; det inlästa spelet ska inte påverkas
+        Path temp = this.dir.resolve("SavedGame.bin.tmp");
+        Files.write(temp, SavedGame.encode(new Board(4), 0L));
+        Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        Board copy = new Board(4);
+        saved.restore(copy);
+        assertEquals(board.getHash(), copy.getHash());
+        while (board.undo()) {
+            assertEquals(true, copy.undo());
+            assertEquals(board.getHash(), copy.getHash());
+        }
+    }
+
+    @Test
+    void deleteIsQueuedWithSaves() {
+        // Använder den riktiga filen, så bara i en egen mapp (Maven sätter -Dhighscore.dir)
+        assumeTrue(System.getProperty("highscore.dir") != null, "kräver -Dhighscore.dir");
+        Highscore.DIR.mkdirs();
+        byte[] data = SavedGame.encode(new Board(3), 0L);
+
+        SavedGame.saveLater(data);
+        SavedGame.deleteNow();
+        assertFalse(SavedGame.FILE.exists());
+
+        SavedGame.delete();    // Väntar inte ...
+        SavedGame.saveNow(data); // ... men körs före sparningen som köas efter den
+        assertTrue(SavedGame.FILE.exists());
+        SavedGame.deleteNow();
+        assertFalse(SavedGame.FILE.exists());
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        File file = this.dir.resolve("other.bin").toFile();
+        Files.write(file.toPath(), new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> SavedGame.load(file));
+    }
+
+    @Test
+    void rejectsTruncatedGrid() throws IOException {
+        Board board = new Board(6);
+        byte[] data = SavedGame.encode(board, 0L);
+        File file = this.dir.resolve("short.bin").toFile();
+        Files.write(file.toPath(), Arrays.copyOf(data, 30));
+        assertThrows(IllegalArgumentException.class, () -> SavedGame.load(file));
+    }
+
+    @Test
+    void rejectsBoardOfOtherSize() throws IOException {
+        File file = this.dir.resolve("SavedGame.bin").toFile();
+        Files.write(file.toPath(), SavedGame.encode(new Board(3), 0L));
+        SavedGame saved = SavedGame.load(file);
+        assertThrows(IllegalArgumentException.class, () -> saved.restore(new Board(4)));
+    }
+
+    // play – gör slumpmässiga drag: oftast en bricka, ibland en hel rad med slide
+    static void play(Board board, Random random, int count) {
+        int n = board.size();
+        for (int i = 0; i < count; ++i) {
+            int row = board.getEmptyRow();
+            int col = board.getEmptyCol();
+            if (random.nextBoolean()) {
+                row = random.nextInt(n);
+            } else {
+                col = random.nextInt(n);
+            }
+            if (random.nextInt(4) == 0) {
+                board.slide(row, col);
+            } else if (board.canMove(row, col)) {
+                board.move(row, col);
+            } else {
+                --i;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// SolverTest – lösarna ska hitta kortaste lösningen. För 3x3 jämförs alla heuristiker och ParallelSolver
+// med DistanceTable (som vet det exakta avståndet för varje ställning), för 4x4 med Korfs kända längder.
+// 4x4-mönsterdatabasen testas inte här: den tar för lång tid att bygga.
+class SolverTest {
+
+    private static final int THREADS = 4;
+
+    @TempDir
+    static File dir;
+
+    private static DistanceTable table;
+    private static PatternDatabase database;
+    private static WalkingDistance walking;
+
+    @BeforeAll
+    static void buildTables() throws IOException {
+        File tableFile = new File(dir, "DistanceTable-3.bin");
+        DistanceTable.generate(3, tableFile);
+        table = DistanceTable.load(tableFile);
+
+        File databaseFile = new File(dir, "PatternDatabase-3.bin");
+        PatternDatabase.generate(3, PatternDatabase.defaultPartition(3), databaseFile);
+        database = PatternDatabase.load(databaseFile);
+
+        walking = WalkingDistance.generate(3);
+    }
+
+    @Test
+    void threeByThreeIsOptimal() {
+        for (int seed = 1; seed <= 30; ++seed) {
+            Board board = new Board(3);
+            board.shuffle(1000, new Random(seed));
+            int distance = table.distance(board);
+
+            assertOptimal(board, distance, table.solution(board), "table");
+            assertOptimal(board, distance, new Solver(board).solve(), "ida-lc");
+            assertOptimal(board, distance, new Solver(board, walking.newHeuristic()).solve(), "ida-wd");
+            assertOptimal(board, distance, new Solver(board, database.newHeuristic()).solve(), "ida-pdb");
+            assertOptimal(board, distance, new ParallelSolver(board, THREADS).solve(), "par-lc");
+            assertOptimal(board, distance, new ParallelSolver(board, database::newHeuristic, THREADS).solve(), "par-pdb");
+        }
+    }
+
+    @Test
+    void hardestThreeByThree() {
+        // En av de två 3x3-ställningarna som kräver 31 drag
+        Board board = new Board(3);
+        board.setCells(new int[] {8, 6, 7, 2, 5, 4, 3, 0, 1});
+        assertEquals(31, table.distance(board));
+        assertOptimal(board, 31, new Solver(board).solve(), "ida-lc");
+        assertOptimal(board, 31, new ParallelSolver(board, THREADS).solve(), "par-lc");
+    }
+
+    @Test
+    void solvedBoardNeedsNoMoves() {
+        Board board = new Board(3);
+        assertEquals(0, table.distance(board));
+        assertEquals(0, new Solver(board).solve().size());
+        assertEquals(0, new ParallelSolver(board, THREADS).solve().size());
+    }
+
+    @Test
+    void korfInstances() {
+        // Korfs ställning 16 och 42 (båda 42 drag), vridna till spelets mål som i SolverBenchmark
+        int[][] korf = {
+                {1, 3, 2, 5, 10, 9, 15, 6, 8, 14, 13, 11, 12, 4, 7, 0},
+                {4, 5, 7, 2, 9, 14, 12, 13, 0, 3, 6, 11, 8, 1, 15, 10},
+        };
+        WalkingDistance walking4 = WalkingDistance.generate(4);
+        Supplier<Heuristic> linear = () -> new ManhattanHeuristic(4, true);
+        for (int[] instance : korf) {
+            Board board = korfBoard(instance);
+            assertOptimal(board, 42, new Solver(board).solve(), "ida-lc");
+            assertOptimal(board, 42, new Solver(board, walking4.newHeuristic()).solve(), "ida-wd");
+            assertOptimal(board, 42, new ParallelSolver(board, linear, THREADS).solve(), "par-lc");
+        }
+    }
+
+    // assertOptimal – lösningen ska ha rätt längd och faktiskt lösa brädet (brädet själv ändras inte)
+    private static void assertOptimal(Board board, int expected, List<Move> solution, String config) {
+        assertNotNull(solution, config);
+        assertEquals(expected, solution.size(), config);
+
+        Board copy = new Board(board.size());
+        copy.setCells(board.toArray());
+        for (Move move : solution) {
+            assertTrue(copy.move(move.fromRow, move.fromCol), config + ": ogiltigt drag");
+        }
+        assertTrue(copy.isSolved(), config + ": inte löst");
+    }
+
+    private static Board korfBoard(int[] korf) {
+        int[] values = new int[16];
+        for (int pos = 0; pos < 16; ++pos) {
+            values[15 - pos] = korf[pos] == 0 ? 0 : 16 - korf[pos];
+        }
+        Board board = new Board(4);
+        board.setCells(values);
+        return board;
+    }
+}